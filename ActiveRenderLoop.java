@@ -0,0 +1,121 @@
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+// Bucle de juego con renderizado activo: un hilo propio avanza la simulación y
+// dibuja directamente en el BufferStrategy de un Canvas, sin pasar por el EDT
+// ni por la coalescencia de repaint().
+public class ActiveRenderLoop implements Runnable {
+
+    private static final int BUFFERS = 3;
+
+    private final SkyRunnerGame game;
+    private final Canvas canvas;
+    private BufferStrategy strategy;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    public ActiveRenderLoop(SkyRunnerGame game) {
+        this.game = game;
+        this.canvas = new Canvas();
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(true);
+        canvas.setBackground(new Color(135, 206, 235));
+        canvas.addKeyListener(game);
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    // Arranca el hilo; devuelve false si no se pudo crear el BufferStrategy
+    public boolean start() {
+        if (running) return true;
+        if (!canvas.isDisplayable()) return false;
+        if (strategy == null && !createStrategy()) return false;
+
+        running = true;
+        thread = new Thread(this, "SkyRunner-GameLoop");
+        thread.setDaemon(true);
+        thread.start();
+        canvas.requestFocusInWindow();
+        return true;
+    }
+
+    public void stop() {
+        running = false;
+        Thread t = thread;
+        thread = null;
+        if (t != null && t != Thread.currentThread()) {
+            try {
+                t.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private boolean createStrategy() {
+        try {
+            // Intentar page-flipping con triple buffer; si no, el que ofrezca la plataforma
+            BufferCapabilities flip = new BufferCapabilities(
+                new ImageCapabilities(true), new ImageCapabilities(true),
+                BufferCapabilities.FlipContents.UNDEFINED);
+            try {
+                canvas.createBufferStrategy(BUFFERS, flip);
+            } catch (AWTException e) {
+                canvas.createBufferStrategy(BUFFERS);
+            }
+            strategy = canvas.getBufferStrategy();
+            return strategy != null;
+        } catch (RuntimeException e) {
+            System.out.println("Renderizado activo no disponible: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        try {
+            while (running) {
+                long frameNanos = 1_000_000_000L / game.getTargetFrameRate();
+
+                game.advanceSimulation(System.nanoTime());
+                renderFrame();
+
+                // Esperar hasta el siguiente fotograma
+                nextFrame += frameNanos;
+                long wait = nextFrame - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (-wait > frameNanos) {
+                    // Vamos muy atrasados: no intentar recuperar fotogramas perdidos
+                    nextFrame = System.nanoTime();
+                }
+            }
+        } catch (IllegalStateException e) {
+            // El Canvas se destruyó al cerrar la ventana
+            running = false;
+        }
+    }
+
+    private void renderFrame() {
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    game.renderFrame(g2d);
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
@@ -3,14 +3,42 @@ import java.awt.geom.AffineTransform;
 
 public class Aero extends GameObject {
     
-    // Propiedades de la nave
+    // Propiedades de la nave (velocidades en píxeles por segundo,
+    // aceleraciones en píxeles por segundo al cuadrado)
     private static final int WIDTH = 60;
     private static final int HEIGHT = 40;
-    private static final double MAX_SPEED = 9.0;
-    private static final double MAX_VERTICAL_SPEED = 9.8;
-    private static final double ACCELERATION = 1.2;
-    private static final double VERTICAL_ACCELERATION = 1.1;
-    private static final double FRICTION = 0.95;
+    private static final double MAX_SPEED = 540.0;
+    private static final double MAX_VERTICAL_SPEED = 588.0;
+    private static final double ACCELERATION = 4320.0;
+    private static final double VERTICAL_ACCELERATION = 3960.0;
+    private static final double FRICTION = 3420.0;
+    private static final double PROJECTILE_SPEED = 600.0;
+    // Tiempos en segundos
+    private static final double TURBO_TIME = 3.0;
+    private static final double SHOOT_COOLDOWN = 0.25;
+    private static final double HIT_INVULNERABILITY = 1.0;
+    private static final double SHIELD_INVULNERABILITY = 1.0 / 3.0;
+    private static final double ANIMATION_FRAME_TIME = 3.0 / 60.0;
+    // Máscaras de colisión por inclinación (de -0.2 a 0.2 rad en pasos de 0.05)
+    // y posición de la hélice. Las llamas y la barra de salud quedan fuera de la caja.
+    private static final double MASK_ROTATION_STEP = 0.05;
+    private static final int MASK_ROTATIONS = 9;
+    private static final CollisionMask[] MASKS = buildMasks();
+    // Sprites sin girar: 4 fotogramas de hélice y llama, sin y con turbo. La
+    // caja incluye la llama más larga y la hélice, que salen de la del avión.
+    private static final SpriteAtlas.Sheet SHEET = new SpriteAtlas.Sheet(-32, 0, 110, HEIGHT, 8, (g2d, frame) -> {
+        Aero prototype = new Aero(0, 0);
+        prototype.turboActive = frame >= 4;
+        prototype.animationFrame = frame % 4;
+        prototype.drawVector(g2d);
+    });
+    // Barra de salud con 0 a 3 vidas; la caja deja sitio al borde, que a
+    // escala mayor que 1 sobresale medio trazo
+    private static final SpriteAtlas.Sheet HEALTH_BAR = new SpriteAtlas.Sheet(2, -16, 58, 10, 4, (g2d, frame) -> {
+        Aero prototype = new Aero(0, 0);
+        prototype.lives = frame;
+        prototype.drawHealthBar(g2d);
+    });
     
     // Estado del jugador
     private int health = 100;
@@ -18,20 +46,23 @@ public class Aero extends GameObject {
     private double speedX = 0;
     private double speedY = 0;
     private boolean turboActive = false;
-    private int turboDuration = 0;
-    private int shootCooldown = 0;
+    private double turboDuration = 0;
+    private double shootCooldown = 0;
+    // Ráfaga de cada disparo
+    private BulletPattern shotPattern = BulletPattern.single(PROJECTILE_SPEED);
+    private int volley = 0;
     private boolean invulnerable = false;
-    private int invulnerabilityFrames = 0;
+    private double invulnerabilityTime = 0;
     private int healthSegments = 3;
     private boolean shieldActive = false;
     private int lives = 3;
     private boolean slowActive = false;
     private double slowFactor = 1.0;
-    private int slowFrames = 0;
+    private double slowTime = 0;
     
     // Animación
     private int animationFrame = 0;
-    private int animationDelay = 0;
+    private double animationTime = 0;
     private double rotation = 0;
     private double targetRotation = 0;
     
@@ -45,17 +76,37 @@ public class Aero extends GameObject {
         super(x, y, WIDTH, HEIGHT);
     }
     
+    private static CollisionMask[] buildMasks() {
+        CollisionMask[] masks = new CollisionMask[MASK_ROTATIONS * 2];
+        for (int r = 0; r < MASK_ROTATIONS; r++) {
+            for (int propeller = 0; propeller < 2; propeller++) {
+                Aero prototype = new Aero(0, 0);
+                prototype.rotation = (r - MASK_ROTATIONS / 2) * MASK_ROTATION_STEP;
+                prototype.animationFrame = propeller * 2;
+                masks[r * 2 + propeller] = CollisionMask.fromDrawing(WIDTH, HEIGHT, prototype::drawVector);
+            }
+        }
+        return masks;
+    }
+    
     @Override
-    public void update() {
+    public CollisionMask getCollisionMask() {
+        int r = (int) Math.round(rotation / MASK_ROTATION_STEP) + MASK_ROTATIONS / 2;
+        r = Math.max(0, Math.min(MASK_ROTATIONS - 1, r));
+        return MASKS[r * 2 + (animationFrame < 2 ? 0 : 1)];
+    }
+    
+    @Override
+    public void update(double dt) {
         // Actualizar física
-        x += speedX;
-        y += speedY;
+        moveBy(speedX * dt, speedY * dt);
         
         // Aplicar fricción
-        if (speedX > 0) speedX = Math.max(0, speedX - FRICTION);
-        if (speedX < 0) speedX = Math.min(0, speedX + FRICTION);
-        if (speedY > 0) speedY = Math.max(0, speedY - FRICTION);
-        if (speedY < 0) speedY = Math.min(0, speedY + FRICTION);
+        double friction = FRICTION * dt;
+        if (speedX > 0) speedX = Math.max(0, speedX - friction);
+        if (speedX < 0) speedX = Math.min(0, speedX + friction);
+        if (speedY > 0) speedY = Math.max(0, speedY - friction);
+        if (speedY < 0) speedY = Math.min(0, speedY + friction);
         
         // Limitar velocidad
         speedX = Math.max(-MAX_SPEED, Math.min(MAX_SPEED, speedX));
@@ -67,21 +118,23 @@ public class Aero extends GameObject {
         
         // Actualizar rotación suave
         double rotationDiff = targetRotation - rotation;
-        rotation += rotationDiff * 0.1;
+        rotation += rotationDiff * (1.0 - TickRate.decayPerTick(0.9, dt));
         
         // Actualizar turbo
         if (turboActive) {
-            turboDuration--;
+            turboDuration -= dt;
             if (turboDuration <= 0) {
+                turboDuration = 0;
                 turboActive = false;
             }
         }
         
         if (slowActive) {
-            speedX *= slowFactor;
-            speedY *= slowFactor;
-            slowFrames--;
-            if (slowFrames <= 0) {
+            double factor = TickRate.decayPerTick(slowFactor, dt);
+            speedX *= factor;
+            speedY *= factor;
+            slowTime -= dt;
+            if (slowTime <= 0) {
                 slowActive = false;
                 slowFactor = 1.0;
             }
@@ -89,27 +142,42 @@ public class Aero extends GameObject {
         
         // Actualizar invulnerabilidad
         if (invulnerable) {
-            invulnerabilityFrames--;
-            if (invulnerabilityFrames <= 0) {
+            invulnerabilityTime -= dt;
+            if (invulnerabilityTime <= 0) {
                 invulnerable = false;
             }
         }
         
         // Actualizar cooldown de disparo
         if (shootCooldown > 0) {
-            shootCooldown--;
+            shootCooldown -= dt;
         }
         
         // Actualizar animación
-        animationDelay++;
-        if (animationDelay >= 3) {
+        animationTime += dt;
+        while (animationTime >= ANIMATION_FRAME_TIME) {
             animationFrame = (animationFrame + 1) % 4;
-            animationDelay = 0;
+            animationTime -= ANIMATION_FRAME_TIME;
         }
     }
     
+    // Sprite girado alrededor del centro, como la figura original
     @Override
     public void draw(Graphics2D g2d) {
+        boolean blink = invulnerable && (int) (invulnerabilityTime * 12) % 2 == 0;
+        if (blink) g2d.setComposite(SpriteAtlas.fade(0.5));
+        double centerX = x + width/2;
+        double centerY = y + height/2;
+        g2d.rotate(rotation, centerX, centerY);
+        SHEET.draw(g2d, (turboActive ? 4 : 0) + animationFrame, x, y);
+        g2d.rotate(-rotation, centerX, centerY);
+        if (blink) g2d.setComposite(AlphaComposite.SrcOver);
+
+        HEALTH_BAR.draw(g2d, Math.max(0, Math.min(3, lives)), x, y);
+    }
+
+    // Figura con primitivas, sin la barra de salud; solo para el atlas y las máscaras
+    private void drawVector(Graphics2D g2d) {
         // Guardar transformación original
         AffineTransform originalTransform = g2d.getTransform();
         
@@ -121,7 +189,7 @@ public class Aero extends GameObject {
         g2d.transform(transform);
         
         // Efecto de invulnerabilidad (parpadeo)
-        if (invulnerable && (invulnerabilityFrames / 5) % 2 == 0) {
+        if (invulnerable && (int) (invulnerabilityTime * 12) % 2 == 0) {
             g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f));
         }
         
@@ -162,9 +230,6 @@ public class Aero extends GameObject {
         // Restaurar transformación original
         g2d.setTransform(originalTransform);
         g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
-        
-        // Dibujar barra de salud sobre la nave
-        drawHealthBar(g2d);
     }
     
     private void drawHealthBar(Graphics2D g2d) {
@@ -209,31 +274,41 @@ public class Aero extends GameObject {
         return Color.RED;
     }
     
-    // Métodos de control
-    public void moveUp() {
-        speedY -= VERTICAL_ACCELERATION;
+    // Métodos de control (dt: duración del paso en segundos)
+    public void moveUp(double dt) {
+        speedY -= VERTICAL_ACCELERATION * dt;
         targetRotation = -0.2;
     }
     
-    public void moveDown() {
-        speedY += VERTICAL_ACCELERATION;
+    public void moveDown(double dt) {
+        speedY += VERTICAL_ACCELERATION * dt;
         targetRotation = 0.2;
     }
     
-    public void moveLeft() {
-        speedX -= ACCELERATION;
+    public void moveLeft(double dt) {
+        speedX -= ACCELERATION * dt;
     }
     
-    public void moveRight() {
-        speedX += ACCELERATION;
+    public void moveRight(double dt) {
+        speedX += ACCELERATION * dt;
     }
     
-    public Projectile shoot() {
+    // El avión vive en coordenadas de pantalla y los disparos en coordenadas
+    // de mundo: cameraX es la posición de la cámara en el mundo. Devuelve si
+    // ha disparado.
+    public boolean shoot(ProjectileStore projectiles, int cameraX) {
         if (shootCooldown <= 0) {
-            shootCooldown = 15; // 15 frames de cooldown
-            return new Projectile(x + width, y + height/2, 10, false);
+            // Se suma en vez de fijar: lo que sobró del último paso cuenta, así
+            // la cadencia sostenida es la misma a cualquier frecuencia
+            shootCooldown += SHOOT_COOLDOWN;
+            shotPattern.emit(projectiles, cameraX + x + width, y + height/2, false, 0, 0, volley++);
+            return true;
         }
-        return null;
+        return false;
+    }
+    
+    public void setShotPattern(BulletPattern pattern) {
+        this.shotPattern = pattern;
     }
     
     public void takeDamage() {
@@ -245,7 +320,7 @@ public class Aero extends GameObject {
             health -= damage;
             if (health < 0) health = 0;
             invulnerable = true;
-            invulnerabilityFrames = 60; 
+            invulnerabilityTime = HIT_INVULNERABILITY;
         }
     }
 
@@ -254,18 +329,18 @@ public class Aero extends GameObject {
         if (shieldActive) {
             shieldActive = false;
             invulnerable = true;
-            invulnerabilityFrames = 20;
+            invulnerabilityTime = SHIELD_INVULNERABILITY;
             return false;
         }
         health = maxHealth;
         invulnerable = true;
-        invulnerabilityFrames = 60;
+        invulnerabilityTime = HIT_INVULNERABILITY;
         return true;
     }
     
     public void activateTurbo() {
         turboActive = true;
-        turboDuration = 180; // 3 segundos a 60 FPS
+        turboDuration = TURBO_TIME;
     }
     
     public void reset() {
@@ -275,7 +350,7 @@ public class Aero extends GameObject {
         turboActive = false;
         turboDuration = 0;
         invulnerable = false;
-        invulnerabilityFrames = 0;
+        invulnerabilityTime = 0;
         rotation = 0;
         targetRotation = 0;
     }
@@ -283,7 +358,8 @@ public class Aero extends GameObject {
     public void activateShield() { shieldActive = true; }
     public boolean isShieldActive() { return shieldActive; }
     public void setLives(int lives) { this.lives = lives; }
-    public void applySlow(double factor, int frames) { slowActive = true; slowFactor = factor; slowFrames = frames; }
+    // factor: velocidad que se conserva en cada paso de 60 Hz mientras dura el efecto
+    public void applySlow(double factor, double seconds) { slowActive = true; slowFactor = factor; slowTime = seconds; }
     public void healToFull() { this.health = this.maxHealth; }
     
     
@@ -297,24 +373,19 @@ public class Aero extends GameObject {
         return invulnerable;
     }
     
-    public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
-    }
-    
-    public void setInvulnerable(int frames) {
+    public void setInvulnerable(double seconds) {
         invulnerable = true;
-        invulnerabilityFrames = frames;
+        invulnerabilityTime = seconds;
     }
     
-    public int getTurboDuration() {
+    // Tiempo de turbo restante en segundos
+    public double getTurboDuration() {
         return turboDuration;
     }
     
     @Override
     public boolean collidesWith(GameObject other) {
         // Colisión más precisa considerando la forma de la nave
-        Rectangle thisRect = new Rectangle(x + 10, y + 5, width - 20, height - 10);
-        Rectangle otherRect = new Rectangle(other.x, other.y, other.width, other.height);
-        return thisRect.intersects(otherRect);
+        return other.intersects(x + 10, y + 5, width - 20, height - 10);
     }
 }
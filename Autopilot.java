@@ -0,0 +1,80 @@
+import java.util.Arrays;
+
+// Piloto automático determinista para simulaciones sin ventana: dispara siempre,
+// se mantiene en la parte izquierda de la pantalla y busca el carril vertical
+// con menos peligros por delante (obstáculos, rayos, enemigos y sus disparos),
+// acercándose a los power-ups cuando el camino está despejado.
+public class Autopilot {
+
+    private static final int LOOKAHEAD = 260;
+    private static final int LANE_STEP = 20;
+    private static final int TOP = 50;
+    private static final int BOTTOM = GameEngine.HEIGHT - 60;
+    private static final int CRUISE_X = 180;
+    private static final int DEADBAND = 6;
+
+    private final double[] laneCost = new double[(BOTTOM - TOP) / LANE_STEP + 1];
+
+    public int decide(GameEngine engine) {
+        Aero player = engine.getPlayer();
+        int px = player.getX();
+        // Los peligros están en coordenadas de mundo y el jugador en las de pantalla
+        int wx = engine.getCameraPx() + px;
+        int py = player.getY();
+        int ph = player.getHeight();
+
+        Arrays.fill(laneCost, 0.0);
+        for (Obstacle obstacle : engine.getObstacles()) {
+            addThreat(wx, obstacle.getX(), obstacle.getWidth(), obstacle.getY(), obstacle.getHeight(), ph, 1.0);
+            if (obstacle.hasLightningColumn()) {
+                addThreat(wx, obstacle.getLightningColumnX(), Obstacle.LIGHTNING_COLUMN_WIDTH,
+                          obstacle.getLightningColumnY(), obstacle.getLightningColumnHeight(GameEngine.HEIGHT), ph, 1.0);
+            }
+        }
+        for (Enemy enemy : engine.getEnemies()) {
+            // Los enemigos oscilan: se cubre todo su recorrido vertical
+            addThreat(wx, enemy.getX(), enemy.getWidth(), enemy.getY() - 20, enemy.getHeight() + 40, ph, 0.8);
+        }
+        ProjectileStore projectiles = engine.getProjectiles();
+        for (int i = 0; i < projectiles.size(); i++) {
+            if (projectiles.isEnemyShot(i)) {
+                addThreat(wx, projectiles.getX(i) - 60, 70, projectiles.getY(i), 8, ph, 0.6);
+            }
+        }
+        for (PowerUp powerUp : engine.getPowerUps()) {
+            addThreat(wx, powerUp.getX(), powerUp.getWidth(), powerUp.getY(), powerUp.getHeight(), ph, -0.3);
+        }
+
+        // Carril más barato; en caso de empate, el más cercano
+        int bestLane = 0;
+        double bestCost = Double.MAX_VALUE;
+        for (int i = 0; i < laneCost.length; i++) {
+            int laneY = TOP + i * LANE_STEP;
+            double cost = laneCost[i] + Math.abs(laneY - py) * 0.0005;
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestLane = laneY;
+            }
+        }
+
+        int inputs = GameEngine.INPUT_FIRE;
+        if (bestLane < py - DEADBAND) inputs |= GameEngine.INPUT_UP;
+        else if (bestLane > py + DEADBAND) inputs |= GameEngine.INPUT_DOWN;
+        if (px < CRUISE_X - DEADBAND) inputs |= GameEngine.INPUT_RIGHT;
+        else if (px > CRUISE_X + DEADBAND) inputs |= GameEngine.INPUT_LEFT;
+        return inputs;
+    }
+
+    // Suma el peligro de un rectángulo a los carriles que lo cruzarían, más cuanto más cerca
+    private void addThreat(int px, int x, int w, int y, int h, int playerHeight, double weight) {
+        if (x + w < px - 10 || x > px + LOOKAHEAD) return;
+        double proximity = 1.0 - Math.max(0, x - px) / (double) (LOOKAHEAD + 1);
+        int margin = 8;
+        for (int i = 0; i < laneCost.length; i++) {
+            int laneTop = TOP + i * LANE_STEP;
+            if (laneTop + playerHeight + margin > y && laneTop - margin < y + h) {
+                laneCost[i] += weight * (0.2 + proximity);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+// Imagen intermedia para dibujar a una resolución interna distinta de la de la
+// ventana: el fotograma se dibuja en ella a la escala interna y se presenta
+// con un solo drawImage escalado al tamaño de la ventana, con el filtro
+// elegido: vecino más próximo por defecto, bilineal para un resultado suave.
+// Sin aceleración el bilineal cuesta 25-40 ms por copia a 1600x1200 frente a
+// unos 2 ms del vecino más próximo, por eso no es el filtro por defecto.
+// Si las dos escalas coinciden se dibuja directamente en la pantalla, sin
+// copia intermedia.
+//
+// Con pantalla es una VolatileImage (en la tarjeta gráfica, como el
+// BufferStrategy); sin pantalla, una BufferedImage.
+public class BackBuffer {
+
+    private static final int WIDTH = GameEngine.WIDTH;
+    private static final int HEIGHT = GameEngine.HEIGHT;
+
+    // Dibuja un fotograma con g2d sin escalar; scale es la escala a aplicar
+    public interface Frame {
+        void draw(Graphics2D g2d, double scale);
+    }
+
+    private Object interpolation = RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR;
+    private VolatileImage accelerated;
+    private BufferedImage image;
+
+    // RenderingHints.VALUE_INTERPOLATION_*
+    public void setInterpolation(Object interpolation) {
+        this.interpolation = interpolation;
+    }
+
+    public Object getInterpolation() { return interpolation; }
+
+    // Dibuja frame a internalScale y lo presenta en screen a windowScale
+    public void present(Graphics2D screen, double internalScale, double windowScale, Frame frame) {
+        if (internalScale == windowScale) {
+            frame.draw(screen, windowScale);
+            return;
+        }
+        int width = (int) Math.ceil(WIDTH * internalScale);
+        int height = (int) Math.ceil(HEIGHT * internalScale);
+        int screenWidth = (int) Math.round(WIDTH * windowScale);
+        int screenHeight = (int) Math.round(HEIGHT * windowScale);
+        screen.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+
+        if (GraphicsEnvironment.isHeadless()) {
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            Graphics2D g2d = image.createGraphics();
+            try {
+                frame.draw(g2d, internalScale);
+            } finally {
+                g2d.dispose();
+            }
+            screen.drawImage(image, 0, 0, screenWidth, screenHeight, null);
+            return;
+        }
+
+        GraphicsConfiguration config = screen.getDeviceConfiguration();
+        do {
+            if (accelerated == null || accelerated.getWidth() != width || accelerated.getHeight() != height
+                    || accelerated.validate(config) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (accelerated != null) accelerated.flush();
+                accelerated = config.createCompatibleVolatileImage(width, height);
+            }
+            // Se dibuja entero cada vez, así que IMAGE_RESTORED no necesita nada más
+            Graphics2D g2d = accelerated.createGraphics();
+            try {
+                frame.draw(g2d, internalScale);
+            } finally {
+                g2d.dispose();
+            }
+            screen.drawImage(accelerated, 0, 0, screenWidth, screenHeight, null);
+        } while (accelerated.contentsLost());
+    }
+}
@@ -0,0 +1,137 @@
+// Patrón de disparo declarativo: describe una ráfaga (cuántas balas, en qué
+// direcciones y a qué velocidad) y la emite en un ProjectileStore. Los patrones
+// son inmutables y se comparten entre enemigos; las direcciones relativas se
+// calculan una vez al crearlos, así emitir no usa trigonometría salvo para
+// apuntar.
+//
+// Ángulos en grados, respecto a la dirección de disparo del tirador (derecha
+// para el jugador, izquierda para los enemigos) o a la del blanco en AIMED. Las
+// velocidades son propias, en píxeles por segundo, sin la deriva del mundo
+// que añade ProjectileStore.
+//
+//   BulletPattern.single(480)                      un disparo recto
+//   BulletPattern.spread(5, 60, 420)               abanico de 5 en 60 grados
+//   BulletPattern.ring(24, 300)                    anillo de 24
+//   BulletPattern.aimed(3, 20, 450)                abanico hacia el jugador
+//   BulletPattern.spiral(4, 320, 12)               4 brazos que giran 12 grados por ráfaga
+//   BulletPattern.spread(2, 0, 480).withSpacing(12).withSpeedStep(60)
+//                                                  dos disparos paralelos a 480 y 540
+public final class BulletPattern {
+
+    public enum Shape { SPREAD, RING, AIMED, SPIRAL }
+
+    private final Shape shape;
+    private final int count;
+    private final double arc;
+    private final double speed;
+    // Velocidad añadida por cada bala sucesiva de la ráfaga
+    private final double speedStep;
+    // Separación lateral entre balas, perpendicular a la dirección de disparo
+    private final double spacing;
+    // Giro por ráfaga de SPIRAL (en grados y en radianes)
+    private final double spinDegrees;
+    private final double spin;
+    // Dirección de cada bala relativa a la de disparo (coseno y seno)
+    private final double[] relCos;
+    private final double[] relSin;
+
+    private BulletPattern(Shape shape, int count, double arcDegrees, double speed,
+                          double speedStep, double spacing, double spinDegrees) {
+        if (count < 1) throw new IllegalArgumentException("Un patrón necesita al menos una bala: " + count);
+        this.shape = shape;
+        this.count = count;
+        this.arc = arcDegrees;
+        this.speed = speed;
+        this.speedStep = speedStep;
+        this.spacing = spacing;
+        this.spinDegrees = spinDegrees;
+        this.spin = Math.toRadians(spinDegrees);
+        this.relCos = new double[count];
+        this.relSin = new double[count];
+        boolean around = shape == Shape.RING || shape == Shape.SPIRAL;
+        for (int i = 0; i < count; i++) {
+            double angle;
+            if (around) {
+                angle = 2 * Math.PI * i / count;
+            } else {
+                angle = count == 1 ? 0.0 : Math.toRadians(arcDegrees) * ((double) i / (count - 1) - 0.5);
+            }
+            // Sin errores de redondeo en el caso recto, el más común
+            relCos[i] = angle == 0.0 ? 1.0 : Math.cos(angle);
+            relSin[i] = angle == 0.0 ? 0.0 : Math.sin(angle);
+        }
+    }
+
+    public static BulletPattern single(double speed) {
+        return spread(1, 0, speed);
+    }
+
+    public static BulletPattern spread(int count, double arcDegrees, double speed) {
+        return new BulletPattern(Shape.SPREAD, count, arcDegrees, speed, 0, 0, 0);
+    }
+
+    public static BulletPattern ring(int count, double speed) {
+        return new BulletPattern(Shape.RING, count, 360, speed, 0, 0, 0);
+    }
+
+    public static BulletPattern aimed(int count, double arcDegrees, double speed) {
+        return new BulletPattern(Shape.AIMED, count, arcDegrees, speed, 0, 0, 0);
+    }
+
+    public static BulletPattern spiral(int arms, double speed, double degreesPerVolley) {
+        return new BulletPattern(Shape.SPIRAL, arms, 360, speed, 0, 0, degreesPerVolley);
+    }
+
+    public BulletPattern withSpacing(double pixels) {
+        return new BulletPattern(shape, count, arc, speed, speedStep, pixels, spinDegrees);
+    }
+
+    public BulletPattern withSpeedStep(double pixelsPerSecond) {
+        return new BulletPattern(shape, count, arc, speed, pixelsPerSecond, spacing, spinDegrees);
+    }
+
+    // Emite una ráfaga desde (x, y), en coordenadas de mundo. (targetX, targetY)
+    // es el blanco de AIMED y volley el número de ráfaga del tirador, que hace
+    // girar SPIRAL. Devuelve cuántas balas ha creado.
+    public int emit(ProjectileStore store, int x, int y, boolean enemyShot,
+                    int targetX, int targetY, int volley) {
+        // Dirección de disparo
+        double dirX = enemyShot ? -1.0 : 1.0;
+        double dirY = 0.0;
+        if (shape == Shape.AIMED) {
+            double dx = targetX - x;
+            double dy = targetY - y;
+            double length = Math.sqrt(dx * dx + dy * dy);
+            if (length > 0) {
+                dirX = dx / length;
+                dirY = dy / length;
+            }
+        } else if (shape == Shape.SPIRAL && spin != 0) {
+            double angle = spin * volley;
+            double c = Math.cos(angle);
+            double s = Math.sin(angle);
+            double rx = dirX * c - dirY * s;
+            dirY = dirX * s + dirY * c;
+            dirX = rx;
+        }
+
+        // Perpendicular a la dirección, para la separación lateral
+        double sideX = dirY;
+        double sideY = -dirX;
+        double firstSide = -spacing * (count - 1) / 2.0;
+        for (int i = 0; i < count; i++) {
+            // Dirección de la bala: la relativa girada por la de disparo
+            double bx = dirX * relCos[i] - dirY * relSin[i];
+            double by = dirX * relSin[i] + dirY * relCos[i];
+            double v = speed + speedStep * i;
+            double side = firstSide + spacing * i;
+            store.spawn(x + (int) Math.round(sideX * side), y + (int) Math.round(sideY * side),
+                        bx * v, by * v, enemyShot);
+        }
+        return count;
+    }
+
+    public Shape getShape() { return shape; }
+    public int getCount() { return count; }
+    public double getSpeed() { return speed; }
+}
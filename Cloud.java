@@ -1,88 +1,162 @@
 import java.awt.*;
+import java.util.SplittableRandom;
 
+// Nube decorativa. Su forma es una de SHAPES variantes por tamaño, fijas
+// (salen de una semilla propia, no del generador de la partida); cada variante
+// se rasteriza una vez en el SpriteAtlas y todas las nubes que la usan, también
+// las del menú, comparten esa imagen. Dibujar una nube es un solo drawImage.
 public class Cloud {
     
+    // Círculos por nube: entre 5 y 7
+    private static final int MAX_POINTS = 7;
+    // Tamaños 0 a MAX_SIZE y variantes de forma de cada uno
+    public static final int MAX_SIZE = 2;
+    public static final int SHAPES = 16;
+    private static final Shape[] SHAPE_CACHE = new Shape[(MAX_SIZE + 1) * SHAPES];
+    
+    static {
+        for (int size = 0; size <= MAX_SIZE; size++) {
+            for (int variant = 0; variant < SHAPES; variant++) {
+                SHAPE_CACHE[size * SHAPES + variant] = new Shape(size, variant);
+            }
+        }
+    }
+    
     public int x, y;
     public int width, height;
-    public int speed;
-    private Color color;
-    private int opacity;
-    private int[] cloudPoints;
-    private int numPoints;
+    public int prevX, prevY;
+    // Velocidad propia en píxeles por segundo
+    public double speed;
+    // Fracción de píxel pendiente del movimiento
+    private double subX, subY;
+    private Shape shape;
     
-    public Cloud(int x, int y, int size) {
+    public Cloud(int x, int y, int size, SplittableRandom random) {
+        reset(x, y, size, random);
+    }
+    
+    // Nube vacía para EntityPools, que la inicializa con reset
+    public Cloud() {
+    }
+    
+    // Deja la nube como recién creada con una forma nueva (size de 0 a MAX_SIZE)
+    public void reset(int x, int y, int size, SplittableRandom random) {
+        size = Math.max(0, Math.min(MAX_SIZE, size));
         this.x = x;
         this.y = y;
-        this.speed = size;
+        this.prevX = x;
+        this.prevY = y;
+        this.subX = 0;
+        this.subY = 0;
+        this.speed = size * 60.0;
         this.width = 60 + size * 20;
         this.height = 30 + size * 10;
-        this.opacity = 150 + size * 20;
-        this.color = new Color(255, 255, 255, Math.min(opacity, 255));
-        
-        // Generar forma de nube orgánica
-        generateCloudShape();
+        this.shape = SHAPE_CACHE[size * SHAPES + random.nextInt(SHAPES)];
     }
     
-    private void generateCloudShape() {
-        numPoints = 5 + (int)(Math.random() * 3);
-        cloudPoints = new int[numPoints * 2];
-        
-        for (int i = 0; i < numPoints; i++) {
-            double angle = (2 * Math.PI * i) / numPoints;
-            int radius = (int)(width * 0.3 + Math.random() * width * 0.2);
-            
-            cloudPoints[i * 2] = (int)(Math.cos(angle) * radius);
-            cloudPoints[i * 2 + 1] = (int)(Math.sin(angle) * radius * 0.5);
-        }
+    public void savePreviousPosition() {
+        prevX = x;
+        prevY = y;
     }
     
-    public void update() {
-        x -= speed;
+    // x está en la capa de nubes: el desplazamiento de la cámara se aplica al
+    // dibujar (GameEngine.CLOUD_PARALLAX); aquí solo se mueve la deriva propia
+    public void update(double dt) {
+        subX -= speed * dt;
         
         // Movimiento suave hacia arriba y abajo
-        y += Math.sin(x * 0.01) * 0.5;
+        subY += Math.sin(x * 0.01) * 30.0 * dt;
+        
+        int ix = (int) subX;
+        int iy = (int) subY;
+        x += ix;
+        y += iy;
+        subX -= ix;
+        subY -= iy;
     }
     
     public void draw(Graphics2D g2d) {
-        // Guardar configuración original
-        Composite originalComposite = g2d.getComposite();
-        
-        // Aplicar transparencia
-        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 
-            color.getAlpha() / 255.0f));
-        
-        // Dibujar nube con forma orgánica
-        g2d.setColor(color);
-        
-        // Centro de la nube
-        int centerX = x + width / 2;
-        int centerY = y + height / 2;
-        
-        // Dibujar círculos superpuestos para crear forma de nube
-        for (int i = 0; i < numPoints; i++) {
-            int circleX = centerX + cloudPoints[i * 2];
-            int circleY = centerY + cloudPoints[i * 2 + 1];
-            int circleRadius = (int)(width * 0.15 + Math.random() * width * 0.1);
-            
-            g2d.fillOval(circleX - circleRadius, circleY - circleRadius, 
-                         circleRadius * 2, circleRadius * 2);
-        }
-        
-        // Dibujar círculo central más grande
-        int mainRadius = (int)(width * 0.25);
-        g2d.fillOval(centerX - mainRadius, centerY - mainRadius, 
-                     mainRadius * 2, mainRadius * 2);
-        
-        // Añadir sombra sutil
-        g2d.setColor(new Color(200, 200, 200, color.getAlpha() / 2));
-        g2d.fillOval(centerX - mainRadius + 3, centerY - mainRadius + 3, 
-                     mainRadius * 2, mainRadius * 2);
-        
-        // Restaurar configuración original
-        g2d.setComposite(originalComposite);
+        shape.sheet.draw(g2d, 0, x, y);
     }
     
     public boolean isOffScreen() {
         return x + width < 0;
     }
-}
\ No newline at end of file
+    
+    // Forma de una variante: círculos alrededor del centro, uno central más
+    // grande y su sombra. Los colores llevan ya la opacidad de la nube, así que
+    // la imagen se dibuja con la composición normal y queda igual que dibujar
+    // los círculos uno a uno con esa transparencia.
+    private static final class Shape {
+        private final int width, height;
+        private final Color color;
+        private final Color shadow;
+        private final int numPoints;
+        private final int[] cloudPoints = new int[MAX_POINTS * 2];
+        private final int[] circleRadii = new int[MAX_POINTS];
+        private final SpriteAtlas.Sheet sheet;
+        
+        Shape(int size, int variant) {
+            width = 60 + size * 20;
+            height = 30 + size * 10;
+            int alpha = Math.min(150 + size * 20, 255);
+            color = new Color(255, 255, 255, alpha * alpha / 255);
+            shadow = new Color(200, 200, 200, alpha * (alpha / 2) / 255);
+            
+            // Generar forma de nube orgánica
+            SplittableRandom random = new SplittableRandom(size * 1009L + variant);
+            numPoints = 5 + random.nextInt(3);
+            int minX = 0, minY = 0, maxX = width, maxY = height;
+            for (int i = 0; i < numPoints; i++) {
+                double angle = (2 * Math.PI * i) / numPoints;
+                int radius = (int)(width * 0.3 + random.nextDouble() * width * 0.2);
+                
+                cloudPoints[i * 2] = (int)(Math.cos(angle) * radius);
+                cloudPoints[i * 2 + 1] = (int)(Math.sin(angle) * radius * 0.5);
+                circleRadii[i] = (int)(width * 0.15 + random.nextDouble() * width * 0.1);
+                
+                int cx = width / 2 + cloudPoints[i * 2];
+                int cy = height / 2 + cloudPoints[i * 2 + 1];
+                minX = Math.min(minX, cx - circleRadii[i]);
+                minY = Math.min(minY, cy - circleRadii[i]);
+                maxX = Math.max(maxX, cx + circleRadii[i]);
+                maxY = Math.max(maxY, cy + circleRadii[i]);
+            }
+            // La sombra se desplaza 3 px respecto al círculo central
+            int mainRadius = (int)(width * 0.25);
+            maxX = Math.max(maxX, width / 2 + mainRadius + 3);
+            maxY = Math.max(maxY, height / 2 + mainRadius + 3);
+            sheet = new SpriteAtlas.Sheet(minX - 1, minY - 1, maxX - minX + 2, maxY - minY + 2, 1,
+                                          (g2d, frame) -> paint(g2d));
+        }
+        
+        // Nube con la esquina en (0, 0)
+        private void paint(Graphics2D g2d) {
+            g2d.setColor(color);
+            
+            // Centro de la nube
+            int centerX = width / 2;
+            int centerY = height / 2;
+            
+            // Dibujar círculos superpuestos para crear forma de nube
+            for (int i = 0; i < numPoints; i++) {
+                int circleX = centerX + cloudPoints[i * 2];
+                int circleY = centerY + cloudPoints[i * 2 + 1];
+                int circleRadius = circleRadii[i];
+                
+                g2d.fillOval(circleX - circleRadius, circleY - circleRadius, 
+                             circleRadius * 2, circleRadius * 2);
+            }
+            
+            // Dibujar círculo central más grande
+            int mainRadius = (int)(width * 0.25);
+            g2d.fillOval(centerX - mainRadius, centerY - mainRadius, 
+                         mainRadius * 2, mainRadius * 2);
+            
+            // Añadir sombra sutil
+            g2d.setColor(shadow);
+            g2d.fillOval(centerX - mainRadius + 3, centerY - mainRadius + 3, 
+                         mainRadius * 2, mainRadius * 2);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+// Máscara de colisión de un sprite: un bit por píxel, filas de long con el
+// bit 0 de cada palabra a la izquierda. Se genera una vez por tipo y fotograma
+// dibujando el sprite en una imagen, y cubre solo la caja de colisión: lo que
+// el dibujo pinta fuera de ella no cuenta.
+//
+// Las comprobaciones se hacen después de que las cajas se solapen, con un AND
+// de palabras desplazadas por fila: unas pocas operaciones por fila del
+// solape. Una máscara null significa caja sólida.
+public final class CollisionMask {
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    private CollisionMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height];
+    }
+
+    // painter dibuja el sprite con su caja de colisión en (0, 0). Cuenta como
+    // sólido cada píxel con al menos la mitad de opacidad.
+    public static CollisionMask fromDrawing(int width, int height, Consumer<Graphics2D> painter) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        painter.accept(g2d);
+        g2d.dispose();
+
+        CollisionMask mask = new CollisionMask(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if ((image.getRGB(x, y) >>> 24) >= 128) {
+                    mask.words[y * mask.wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+                }
+            }
+        }
+        return mask;
+    }
+
+    // Solape píxel a píxel de dos cajas con sus máscaras (null = caja sólida)
+    public static boolean overlaps(CollisionMask a, int ax, int ay, int aw, int ah,
+                                   CollisionMask b, int bx, int by, int bw, int bh) {
+        int left = Math.max(ax, bx);
+        int right = Math.min(ax + aw, bx + bw);
+        int top = Math.max(ay, by);
+        int bottom = Math.min(ay + ah, by + bh);
+        if (left >= right || top >= bottom) return false;
+        if (a == null && b == null) return true;
+
+        for (int y = top; y < bottom; y++) {
+            for (int x = left; x < right; x += 64) {
+                int n = Math.min(64, right - x);
+                long bitsA = a == null ? ones(n) : a.bits(x - ax, y - ay, n);
+                long bitsB = b == null ? ones(n) : b.bits(x - bx, y - by, n);
+                if ((bitsA & bitsB) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    // n bits de la fila a partir de la columna indicada (n entre 1 y 64)
+    private long bits(int column, int row, int n) {
+        int base = row * wordsPerRow;
+        int word = column >>> 6;
+        int shift = column & 63;
+        long value = words[base + word] >>> shift;
+        if (shift != 0 && word + 1 < wordsPerRow) {
+            value |= words[base + word + 1] << (64 - shift);
+        }
+        return value & ones(n);
+    }
+
+    private static long ones(int n) {
+        return n == 64 ? -1L : (1L << n) - 1;
+    }
+
+    public boolean isSolid(int x, int y) {
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+
+    // Píxeles sólidos, para comparar con el área de la caja
+    public int countSolid() {
+        int count = 0;
+        for (long word : words) count += Long.bitCount(word);
+        return count;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
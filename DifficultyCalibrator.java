@@ -0,0 +1,249 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Calibración de dificultad por Monte Carlo: simula miles de partidas con el
+// piloto automático repartidas entre todos los núcleos (fork-join), y para cada
+// dificultad y mundo informa de la curva de supervivencia y la tasa de
+// partidas completadas. Después ajusta los parámetros de SpawnTuning uno a
+// uno (densidad de obstáculos y enemigos, multiplicadores antes y después del
+// 50%, máximo de enemigos y tasa de power-ups) para acercar la tasa de
+// completadas al objetivo de cada dificultad.
+//
+// Cada partida usa semilla base + índice y los resultados se suman en orden
+// fijo, así que la salida es la misma con cualquier número de hilos.
+//
+// Uso: java -Djava.awt.headless=true DifficultyCalibrator [partidas] [semilla] [DIFICULTAD] [MUNDO]
+public class DifficultyCalibrator {
+
+    // Tramos de la curva de supervivencia (10% del recorrido total cada uno)
+    private static final int BUCKETS = 10;
+    // Partidas por tarea antes de dejar de dividir
+    private static final int SEQUENTIAL_THRESHOLD = 16;
+    private static final int SEARCH_ITERATIONS = 6;
+
+    // Parámetros que se ajustan, en este orden. Los factores van de 1/4 a 4
+    // veces el valor actual.
+    enum Parameter {
+        DENSITY("densidad", false),
+        LATE_MULTIPLIER("multiplicador tras el 50%", false),
+        EARLY_MULTIPLIER("multiplicador hasta el 50%", false),
+        MAX_ENEMIES("máx. enemigos", false),
+        POWER_UPS("power-ups", true);
+
+        private final String label;
+        // Si al subirlo se completan más partidas (más power-ups) o menos
+        private final boolean helpsPlayer;
+
+        Parameter(String label, boolean helpsPlayer) {
+            this.label = label;
+            this.helpsPlayer = helpsPlayer;
+        }
+
+        SpawnTuning apply(SpawnTuning tuning, double factor) {
+            switch (this) {
+                case DENSITY: return tuning.withDensity(factor);
+                case LATE_MULTIPLIER: return tuning.withLateMultiplier(factor);
+                case EARLY_MULTIPLIER: return tuning.withEarlyMultiplier(factor);
+                case MAX_ENEMIES: return tuning.withMaxEnemies(factor);
+                default: return tuning.withPowerUpRate(factor);
+            }
+        }
+    }
+
+    // Resultado agregado de un lote de partidas
+    static class Stats {
+        int runs;
+        int completed;
+        long totalScore;
+        double totalSeconds;
+        // reached[i]: partidas que llegaron al menos al (i+1)*10% del recorrido
+        final int[] reached = new int[BUCKETS];
+
+        void add(Stats other) {
+            runs += other.runs;
+            completed += other.completed;
+            totalScore += other.totalScore;
+            totalSeconds += other.totalSeconds;
+            for (int i = 0; i < BUCKETS; i++) {
+                reached[i] += other.reached[i];
+            }
+        }
+
+        double completionRate() {
+            return runs == 0 ? 0.0 : completed / (double) runs;
+        }
+    }
+
+    // Simula las partidas [from, to) y divide el rango mientras sea grande
+    static class SimulationTask extends RecursiveTask<Stats> {
+        private static final long serialVersionUID = 1L;
+
+        private final GameEngine.Difficulty difficulty;
+        private final GameEngine.World world;
+        private final SpawnTuning tuning;
+        private final long baseSeed;
+        private final int from;
+        private final int to;
+
+        SimulationTask(GameEngine.Difficulty difficulty, GameEngine.World world, SpawnTuning tuning,
+                       long baseSeed, int from, int to) {
+            this.difficulty = difficulty;
+            this.world = world;
+            this.tuning = tuning;
+            this.baseSeed = baseSeed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Stats stats = new Stats();
+                for (int run = from; run < to; run++) {
+                    simulate(stats, run);
+                }
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(difficulty, world, tuning, baseSeed, from, mid);
+            SimulationTask right = new SimulationTask(difficulty, world, tuning, baseSeed, mid, to);
+            left.fork();
+            Stats stats = right.compute();
+            // Siempre izquierda + derecha: el orden de la suma no depende de los hilos
+            Stats merged = left.join();
+            merged.add(stats);
+            return merged;
+        }
+
+        private void simulate(Stats stats, int run) {
+            GameEngine engine = new GameEngine(difficulty, world, baseSeed + run, tuning);
+            // Ya corre dentro de una tarea del pool: sin paralelismo propio
+            engine.setUpdatePool(null);
+            Autopilot pilot = new Autopilot();
+            long maxTicks = (long) HeadlessSimulator.MAX_SECONDS * engine.getTicksPerSecond();
+            while (!engine.isFinished() && engine.getTick() < maxTicks) {
+                engine.step(pilot.decide(engine));
+            }
+            double progress = engine.isGameComplete() ? 1.0 : progressOf(engine);
+            int bucketsReached = (int) Math.min(BUCKETS, Math.floor(progress * BUCKETS));
+            for (int i = 0; i < bucketsReached; i++) {
+                stats.reached[i]++;
+            }
+            stats.runs++;
+            if (engine.isGameComplete()) stats.completed++;
+            stats.totalScore += engine.getScore();
+            stats.totalSeconds += engine.getTick() * engine.getTickSeconds();
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int runs;
+    private final long baseSeed;
+
+    public DifficultyCalibrator(ForkJoinPool pool, int runs, long baseSeed) {
+        this.pool = pool;
+        this.runs = runs;
+        this.baseSeed = baseSeed;
+    }
+
+    public Stats evaluate(GameEngine.Difficulty difficulty, GameEngine.World world, SpawnTuning tuning) {
+        return pool.invoke(new SimulationTask(difficulty, world, tuning, baseSeed, 0, runs));
+    }
+
+    // Búsqueda por coordenadas: bisección de cada parámetro por turno con los
+    // demás fijos en lo mejor encontrado hasta entonces
+    public SpawnTuning search(GameEngine.Difficulty difficulty, GameEngine.World world, double target) {
+        SpawnTuning best = SpawnTuning.defaults(difficulty);
+        double bestError = Double.MAX_VALUE;
+        for (Parameter parameter : Parameter.values()) {
+            SpawnTuning base = best;
+            double low = Math.log(0.25);
+            double high = Math.log(4.0);
+            for (int i = 0; i < SEARCH_ITERATIONS; i++) {
+                // La primera evaluación es el factor 1: el valor actual
+                double factor = Math.exp((low + high) / 2);
+                SpawnTuning candidate = parameter.apply(base, factor);
+                double rate = evaluate(difficulty, world, candidate).completionRate();
+                double error = Math.abs(rate - target);
+                System.out.printf("    %s x%.3f -> completadas %.1f%%%n", parameter.label, factor, rate * 100);
+                if (error < bestError) {
+                    bestError = error;
+                    best = candidate;
+                }
+                // Subir el factor aleja del objetivo si ya se completan demasiadas
+                // partidas con un parámetro que ayuda, o muy pocas con uno que estorba
+                if ((rate > target) != parameter.helpsPlayer) {
+                    low = Math.log(factor);
+                } else {
+                    high = Math.log(factor);
+                }
+            }
+        }
+        return best;
+    }
+
+    // Avance total de la partida entre 0 y 1, sumando los niveles ya superados
+    static double progressOf(GameEngine engine) {
+        LevelManager levels = engine.getLevelManager();
+        double current = levels.getCurrentLevel().getCompletionPercentage() / 100.0;
+        return Math.min(1.0, (levels.getCurrentLevelIndex() + current) / levels.getLevels().size());
+    }
+
+    static double targetCompletion(GameEngine.Difficulty difficulty) {
+        switch (difficulty) {
+            case EASY: return 0.85;
+            case HARD: return 0.30;
+            default: return 0.60;
+        }
+    }
+
+    private static void printStats(Stats stats) {
+        StringBuilder curve = new StringBuilder();
+        for (int i = 0; i < BUCKETS; i++) {
+            curve.append(String.format("%4.0f", 100.0 * stats.reached[i] / stats.runs));
+        }
+        System.out.printf("  completadas %.1f%%, puntuación media %.1f, duración media %.1f s%n",
+            stats.completionRate() * 100, stats.totalScore / (double) stats.runs,
+            stats.totalSeconds / stats.runs);
+        System.out.println("  supervivencia por 10% del recorrido:" + curve);
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        long baseSeed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        GameEngine.Difficulty[] difficulties = args.length > 2
+            ? new GameEngine.Difficulty[] { GameEngine.Difficulty.valueOf(args[2]) }
+            : GameEngine.Difficulty.values();
+        GameEngine.World[] worlds = args.length > 3
+            ? new GameEngine.World[] { GameEngine.World.valueOf(args[3]) }
+            : GameEngine.World.values();
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        DifficultyCalibrator calibrator = new DifficultyCalibrator(pool, runs, baseSeed);
+        long start = System.nanoTime();
+        long totalRuns = 0;
+
+        try {
+            for (GameEngine.Difficulty difficulty : difficulties) {
+                double target = targetCompletion(difficulty);
+                for (GameEngine.World world : worlds) {
+                    System.out.printf("%s / %s (objetivo %.0f%% completadas)%n", difficulty, world, target * 100);
+                    Stats stats = calibrator.evaluate(difficulty, world, SpawnTuning.defaults(difficulty));
+                    printStats(stats);
+                    SpawnTuning tuned = calibrator.search(difficulty, world, target);
+                    System.out.println("  propuesta: " + tuned);
+                    totalRuns += (long) runs * (SEARCH_ITERATIONS * Parameter.values().length + 1);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d partidas en %.1f s con %d hilos (%.0f partidas/min)%n",
+            totalRuns, seconds, threads, totalRuns / seconds * 60);
+    }
+}
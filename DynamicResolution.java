@@ -0,0 +1,178 @@
+// Resolución interna del dibujo. La partida se dibuja en un BackBuffer a
+// WIDTH x HEIGHT por la escala interna y se copia escalada a la ventana; el
+// coste de rellenar píxeles crece con el cuadrado de la escala, así que a
+// 200% dibujar a escala interna 1 cuesta la cuarta parte.
+//
+// En modo AUTO el peldaño más alto es la escala de la ventana (sin copia
+// escalada) y los demás los de SCALES por debajo de ella. La escala baja un
+// peldaño cuando el dibujo se come de forma sostenida más de LOWER_LOAD del
+// presupuesto del fotograma y vuelve a subir, hasta la de la ventana, cuando
+// lleva un rato por debajo de RAISE_LOAD. Subir un peldaño encarece el dibujo como mucho
+// 1.56 veces (1.25²), así que no se pasa de un umbral al otro. Cada cambio
+// rehace el SpriteAtlas, por eso solo hay unas pocas escalas posibles.
+//
+// La copia escalada también cuesta (mucho si el filtro es bilineal y no hay
+// aceleración): tras cada bajada se mide PROBE_FRAMES fotogramas y, si el
+// dibujo no ha salido al menos un 10% más barato, se vuelve al peldaño
+// anterior y ya no se baja de él.
+public class DynamicResolution {
+
+    public enum Mode {
+        AUTO("automática"),
+        WINDOW("ventana"),
+        NATIVE("800x600");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final double[] SCALES = {2.5, 2.0, 1.75, 1.5, 1.25, 1.0, 0.85, 0.75, 0.6, 0.5};
+    private static final double SMOOTHING = 0.1;
+    // Fracción del presupuesto del fotograma que puede llevarse el dibujo
+    private static final double LOWER_LOAD = 0.6;
+    private static final double RAISE_LOAD = 0.3;
+    private static final int LOWER_FRAMES = 10;
+    private static final int RAISE_FRAMES = 120;
+    private static final int PROBE_FRAMES = 30;
+    private static final double MIN_GAIN = 0.9;
+
+    private Mode mode = Mode.AUTO;
+    private double windowScale = 1.0;
+    private long budgetNanos;
+    // Peldaños de AUTO: la escala de la ventana y las de SCALES menores
+    private double[] steps = { 1.0 };
+    // Peldaño actual (0 = el de la ventana)
+    private int step;
+    // Peldaño más bajo que ha merecido la pena
+    private int bottomStep;
+    private double load;
+    private boolean fresh;
+    private int over;
+    private int under;
+    // Fotogramas que quedan por medir tras una bajada y carga de antes
+    private int probe;
+    private double loadBefore;
+
+    // Métricas
+    private long frames;
+    private int lowers;
+    private int raises;
+    private int reverts;
+    private double lowestScale = Double.MAX_VALUE;
+
+    public DynamicResolution(int targetFrameRate) {
+        setTargetFrameRate(targetFrameRate);
+        setWindowScale(1.0);
+    }
+
+    public void setTargetFrameRate(int fps) {
+        budgetNanos = 1_000_000_000L / Math.max(1, fps);
+    }
+
+    // Escala de la ventana: la interna no pasa de ella
+    public void setWindowScale(double scale) {
+        windowScale = scale;
+        int below = 0;
+        while (below < SCALES.length && SCALES[below] >= scale) below++;
+        steps = new double[1 + SCALES.length - below];
+        steps[0] = scale;
+        System.arraycopy(SCALES, below, steps, 1, SCALES.length - below);
+        restart();
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+        restart();
+    }
+
+    private void restart() {
+        step = 0;
+        bottomStep = steps.length - 1;
+        load = 0;
+        over = 0;
+        under = 0;
+        probe = 0;
+    }
+
+    public Mode getMode() { return mode; }
+
+    // Escala a la que se dibuja el próximo fotograma
+    public double getScale() {
+        switch (mode) {
+            case WINDOW: return windowScale;
+            case NATIVE: return Math.min(1.0, windowScale);
+            default: return steps[step];
+        }
+    }
+
+    // Tiempo que ha costado dibujar el último fotograma
+    public void recordRender(long nanos) {
+        double ratio = nanos / (double) budgetNanos;
+        load = frames == 0 || fresh ? ratio : load + (ratio - load) * SMOOTHING;
+        fresh = false;
+        frames++;
+        lowestScale = Math.min(lowestScale, getScale());
+        if (mode != Mode.AUTO) return;
+
+        if (probe > 0) {
+            if (--probe == 0 && load > loadBefore * MIN_GAIN) {
+                step--;
+                bottomStep = step;
+                reverts++;
+                load = loadBefore;
+            }
+            return;
+        }
+        if (load > LOWER_LOAD) {
+            under = 0;
+            if (++over >= LOWER_FRAMES && step < bottomStep) {
+                loadBefore = load;
+                step++;
+                lowers++;
+                over = 0;
+                probe = PROBE_FRAMES;
+                // La media venía de la escala anterior: empezar de nuevo
+                fresh = true;
+            }
+        } else if (load < RAISE_LOAD) {
+            over = 0;
+            if (++under >= RAISE_FRAMES && step > 0) {
+                step--;
+                raises++;
+                under = 0;
+            }
+        } else {
+            over = 0;
+            under = 0;
+        }
+    }
+
+    // Nueva partida: se conserva la escala, no las métricas
+    public void resetMetrics() {
+        frames = 0;
+        lowers = 0;
+        raises = 0;
+        reverts = 0;
+        lowestScale = Double.MAX_VALUE;
+    }
+
+    // Coste medio del dibujo respecto al presupuesto del fotograma
+    public double getRenderLoad() { return load; }
+    public long getFrames() { return frames; }
+    public int getLowers() { return lowers; }
+    public int getRaises() { return raises; }
+    // Bajadas deshechas porque no abarataban el dibujo
+    public int getReverts() { return reverts; }
+    public double getLowestScale() { return frames == 0 ? getScale() : lowestScale; }
+
+    @Override
+    public String toString() {
+        return String.format("resolución %s, escala %.2f (mínima %.2f), dibujo %.0f%% del fotograma, %d bajadas (%d deshechas), %d subidas",
+            mode.getLabel(), getScale(), getLowestScale(), load * 100, lowers, reverts, raises);
+    }
+}
@@ -2,51 +2,84 @@ import java.awt.*;
 
 public class Enemy extends GameObject {
     
+    // Velocidades en píxeles por segundo, tiempos en segundos
+    private static final double VERTICAL_SPEED = 120.0;
+    // Disparo recto hacia la izquierda a 480 px/s
+    public static final BulletPattern BASIC_SHOT = BulletPattern.single(480.0);
+    private static final double SHOOT_COOLDOWN = 1.0;
+    private static final double ANIMATION_FRAME_TIME = 4.0 / 60.0;
+    // Máscaras de colisión con las alas arriba y abajo (fotogramas pares e impares)
+    private static final CollisionMask[] MASKS = { buildMask(0), buildMask(1) };
+    // Sprites con las alas arriba y abajo; la caja incluye las alas, el cañón
+    // y el indicador, que salen de la caja de colisión
+    private static final SpriteAtlas.Sheet SHEET = new SpriteAtlas.Sheet(-7, -12, 60, 42, 2, (g2d, frame) -> {
+        Enemy prototype = new Enemy(0, 0, 0);
+        prototype.animationFrame = frame;
+        prototype.drawVector(g2d);
+    });
+    
     private int speed;
     private int health = 30;
-    private int shootCooldown = 0;
+    private double shootCooldown = 0;
     private int animationFrame = 0;
-    private int animationDelay = 0;
+    private double animationTime = 0;
     private boolean movingUp = true;
     private int verticalRange = 100;
     private int originalY;
+    private BulletPattern shotPattern = BASIC_SHOT;
+    private int volley = 0;
     
     public Enemy(int x, int y, double speed, int health) {
         super(x, y, 40, 30); // Ancho 40, alto 30
+        reset(x, y, speed, health);
+    }
+    
+    public Enemy(int x, int y, int speed) {
+        this(x, y, speed, 100);
+    }
+    
+    // Deja el enemigo como recién creado (EntityPools lo reutiliza)
+    public void reset(int x, int y, double speed, int health) {
+        resetObject(x, y, 40, 30);
         this.speed = (int)speed;
         this.health = health;
         this.shootCooldown = 0;
         this.animationFrame = 0;
-        this.animationDelay = 0;
+        this.animationTime = 0;
+        this.movingUp = true;
+        this.verticalRange = 100;
         this.originalY = y;
+        this.shotPattern = BASIC_SHOT;
+        this.volley = 0;
     }
     
-    public Enemy(int x, int y, int speed) {
-        super(x, y, 40, 30); // Ancho 40, alto 30
-        this.speed = speed;
-        this.health = 100;
-        this.shootCooldown = 0;
-        this.animationFrame = 0;
-        this.animationDelay = 0;
-        this.originalY = y;
+    private static CollisionMask buildMask(int frame) {
+        Enemy prototype = new Enemy(0, 0, 0);
+        prototype.animationFrame = frame;
+        return CollisionMask.fromDrawing(prototype.width, prototype.height, prototype::drawVector);
     }
     
     @Override
-    public void update() {
-        animationDelay++;
-        if (animationDelay >= 4) {
+    public CollisionMask getCollisionMask() {
+        return MASKS[animationFrame % 2];
+    }
+    
+    @Override
+    public void update(double dt) {
+        animationTime += dt;
+        while (animationTime >= ANIMATION_FRAME_TIME) {
             animationFrame = (animationFrame + 1) % 6;
-            animationDelay = 0;
+            animationTime -= ANIMATION_FRAME_TIME;
         }
         
         // Movimiento vertical
         if (movingUp) {
-            y -= 2;
+            moveBy(0, -VERTICAL_SPEED * dt);
             if (y <= originalY - verticalRange) {
                 movingUp = false;
             }
         } else {
-            y += 2;
+            moveBy(0, VERTICAL_SPEED * dt);
             if (y >= originalY + verticalRange) {
                 movingUp = true;
             }
@@ -54,17 +87,17 @@ public class Enemy extends GameObject {
         
         // Actualizar cooldown de disparo
         if (shootCooldown > 0) {
-            shootCooldown--;
+            shootCooldown -= dt;
         }
     }
     
-    public void update(int scrollSpeed) {
-        x -= scrollSpeed;
-        update();
-    }
-    
     @Override
     public void draw(Graphics2D g2d) {
+        SHEET.draw(g2d, animationFrame % 2, x, y);
+    }
+
+    // Figura con primitivas; solo para el atlas y la máscara
+    private void drawVector(Graphics2D g2d) {
         // Cuerpo principal
         g2d.setColor(new Color(139, 0, 0));
         g2d.fillOval(x, y + 5, width, height - 10);
@@ -108,18 +141,21 @@ public class Enemy extends GameObject {
         return shootCooldown <= 0;
     }
     
-    public Projectile shoot() {
+    // Emite su patrón desde el cañón; (targetX, targetY) es el blanco de los
+    // patrones que apuntan
+    public boolean shoot(ProjectileStore projectiles, int targetX, int targetY) {
         if (canShoot()) {
-            shootCooldown = 60;
-            return new Projectile(x - 10, y + height/2, -8, true);
+            shootCooldown = SHOOT_COOLDOWN;
+            shotPattern.emit(projectiles, x - 10, y + height/2, true, targetX, targetY, volley++);
+            return true;
         }
-        return null;
+        return false;
     }
     
-    public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
+    public void setShotPattern(BulletPattern pattern) {
+        this.shotPattern = pattern;
     }
-
+    
     public void takeDamage(int damage) {
         health -= damage;
         if (health <= 0) {
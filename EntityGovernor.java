@@ -0,0 +1,150 @@
+import java.util.Arrays;
+
+// Regulador de objetos según el tiempo de cada fotograma. Mide lo que cuestan
+// la lógica y el dibujo de cada fotograma frente al presupuesto (1/fps) y,
+// si se pasa de forma sostenida, sube de nivel: primero aclara lo decorativo
+// (nubes y elementos de fondo), después limita los obstáculos, enemigos y
+// proyectiles vivos. Baja de nivel cuando sobra tiempo durante un rato, así
+// no oscila entre dos niveles.
+//
+// Lo decorativo no entra en el resumen de estado, así que sus límites se
+// aplican directamente en el motor. Lo que cambia la partida va como
+// GameEngine.INPUT_THROTTLE en las entradas de cada paso y queda en la
+// grabación: una repetición aplaza lo mismo aunque se vea en otra máquina.
+// En los niveles que limitan, el bit se pone mientras el coste medio pasa de
+// HOLD_LOAD: el motor encoge entonces los límites de cada categoría y los
+// hace crecer cuando se quita, así que se quedan en lo que cabe en el
+// fotograma.
+public class EntityGovernor {
+
+    public enum Load {
+        NORMAL("normal", Integer.MAX_VALUE, Integer.MAX_VALUE, false),
+        DECOR("decorado", 6, 3, false),
+        SPAWNS("límites", 6, 3, true),
+        CRITICAL("crítico", 2, 0, true);
+
+        private final String label;
+        private final int cloudBudget;
+        private final int featureBudget;
+        private final boolean throttle;
+
+        Load(String label, int cloudBudget, int featureBudget, boolean throttle) {
+            this.label = label;
+            this.cloudBudget = cloudBudget;
+            this.featureBudget = featureBudget;
+            this.throttle = throttle;
+        }
+
+        public String getLabel() { return label; }
+        public int getCloudBudget() { return cloudBudget; }
+        public int getFeatureBudget() { return featureBudget; }
+        public boolean isThrottled() { return throttle; }
+    }
+
+    private static final Load[] LOADS = Load.values();
+    // Media móvil exponencial del coste de cada fotograma
+    private static final double SMOOTHING = 0.1;
+    // Sube tras RAISE_FRAMES fotogramas seguidos por encima del presupuesto y
+    // baja tras LOWER_FRAMES por debajo de LOWER_LOAD
+    private static final double RAISE_LOAD = 1.0;
+    private static final double LOWER_LOAD = 0.7;
+    private static final int RAISE_FRAMES = 10;
+    private static final int LOWER_FRAMES = 120;
+    private static final double HOLD_LOAD = 0.85;
+
+    private long budgetNanos;
+    private long updateNanos;
+    private volatile double load;
+    private int over;
+    private int under;
+    private volatile Load current = Load.NORMAL;
+
+    // Métricas
+    private long frames;
+    private long overBudgetFrames;
+    private int raises;
+    private int lowers;
+    private Load peak = Load.NORMAL;
+    private final long[] framesAt = new long[LOADS.length];
+
+    public EntityGovernor(int targetFrameRate) {
+        setTargetFrameRate(targetFrameRate);
+    }
+
+    public void setTargetFrameRate(int fps) {
+        budgetNanos = 1_000_000_000L / Math.max(1, fps);
+    }
+
+    // Tiempo de los pasos de simulación del fotograma (puede haber varios)
+    public void recordUpdate(long nanos) {
+        updateNanos += nanos;
+    }
+
+    // Tiempo de dibujo; cierra el fotograma y decide el nivel
+    public void recordRender(long nanos) {
+        long cost = updateNanos + nanos;
+        updateNanos = 0;
+        double ratio = cost / (double) budgetNanos;
+        load = frames == 0 ? ratio : load + (ratio - load) * SMOOTHING;
+        frames++;
+        if (ratio > 1.0) overBudgetFrames++;
+        framesAt[current.ordinal()]++;
+
+        if (load > RAISE_LOAD) {
+            under = 0;
+            if (++over >= RAISE_FRAMES && current.ordinal() < LOADS.length - 1) {
+                current = LOADS[current.ordinal() + 1];
+                raises++;
+                if (current.ordinal() > peak.ordinal()) peak = current;
+                over = 0;
+            }
+        } else if (load < LOWER_LOAD) {
+            over = 0;
+            if (++under >= LOWER_FRAMES && current.ordinal() > 0) {
+                current = LOADS[current.ordinal() - 1];
+                lowers++;
+                under = 0;
+            }
+        } else {
+            over = 0;
+            under = 0;
+        }
+    }
+
+    // Límites decorativos del nivel actual
+    public void applyTo(GameEngine engine) {
+        Load level = current;
+        engine.setCosmeticBudget(level.getCloudBudget(), level.getFeatureBudget());
+    }
+
+    // Bits que se añaden a las entradas del paso
+    public int inputFlags() {
+        return current.isThrottled() && load > HOLD_LOAD ? GameEngine.INPUT_THROTTLE : 0;
+    }
+
+    // Nueva partida: se conserva el nivel (la máquina es la misma), no las métricas
+    public void resetMetrics() {
+        frames = 0;
+        overBudgetFrames = 0;
+        raises = 0;
+        lowers = 0;
+        peak = current;
+        Arrays.fill(framesAt, 0);
+    }
+
+    public Load getLoad() { return current; }
+    public Load getPeakLoad() { return peak; }
+    // Coste medio de un fotograma respecto al presupuesto (1.0 = justo)
+    public double getFrameLoad() { return load; }
+    public long getFrames() { return frames; }
+    public long getOverBudgetFrames() { return overBudgetFrames; }
+    public int getRaises() { return raises; }
+    public int getLowers() { return lowers; }
+    public long getFramesAt(Load load) { return framesAt[load.ordinal()]; }
+
+    @Override
+    public String toString() {
+        return String.format("nivel %s (máximo %s), carga %.0f%%, %d/%d fotogramas fuera de presupuesto, %d subidas, %d bajadas",
+            current.getLabel(), peak.getLabel(), load * 100, overBudgetFrames, frames, raises, lowers);
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.SplittableRandom;
+
+// Reservas de objetos de una partida: los obstáculos, enemigos, power-ups y
+// nubes que se generan salen de aquí y vuelven al retirarse, así una partida
+// larga deja de crear objetos en cuanto las reservas tienen los que necesita.
+// Los proyectiles no pasan por aquí: viven en ProjectileStore, que ya reutiliza
+// sus filas.
+//
+// Cada partida tiene las suyas (el calibrador simula varias a la vez en
+// distintos hilos).
+public class EntityPools {
+
+    private final ObjectPool<Obstacle> obstacles =
+        new ObjectPool<>("obstáculos", 64, () -> new Obstacle(0, 0, Obstacle.Type.ROCK_TOWER));
+    private final ObjectPool<Enemy> enemies =
+        new ObjectPool<>("enemigos", 32, () -> new Enemy(0, 0, 0));
+    private final ObjectPool<PowerUp> powerUps =
+        new ObjectPool<>("power-ups", 16, () -> new PowerUp(0, 0, PowerUp.Type.TURBO));
+    private final ObjectPool<Cloud> clouds =
+        new ObjectPool<>("nubes", 32, Cloud::new);
+    private final ObjectPool<?>[] all = { obstacles, enemies, powerUps, clouds };
+
+    public Obstacle obstacle(int x, int y, Obstacle.Type type) {
+        Obstacle obstacle = obstacles.acquire();
+        obstacle.reset(x, y, type);
+        return obstacle;
+    }
+
+    public Obstacle obstacle(int x, int width, int height, int y, boolean fromBottom, Obstacle.Type type) {
+        Obstacle obstacle = obstacles.acquire();
+        obstacle.reset(x, width, height, y, fromBottom, type);
+        return obstacle;
+    }
+
+    public Enemy enemy(int x, int y, double speed, int health) {
+        Enemy enemy = enemies.acquire();
+        enemy.reset(x, y, speed, health);
+        return enemy;
+    }
+
+    public PowerUp powerUp(int x, int y, PowerUp.Type type) {
+        PowerUp powerUp = powerUps.acquire();
+        powerUp.reset(x, y, type);
+        return powerUp;
+    }
+
+    public Cloud cloud(int x, int y, int size, SplittableRandom random) {
+        Cloud cloud = clouds.acquire();
+        cloud.reset(x, y, size, random);
+        return cloud;
+    }
+
+    public ObjectPool<Obstacle> getObstacles() { return obstacles; }
+    public ObjectPool<Enemy> getEnemies() { return enemies; }
+    public ObjectPool<PowerUp> getPowerUps() { return powerUps; }
+    public ObjectPool<Cloud> getClouds() { return clouds; }
+
+    public void addStats(EntityPools other) {
+        obstacles.addStats(other.obstacles);
+        enemies.addStats(other.enemies);
+        powerUps.addStats(other.powerUps);
+        clouds.addStats(other.clouds);
+    }
+
+    // Para recorrerlas al informar, sin crear el array cada vez
+    public ObjectPool<?>[] all() {
+        return all;
+    }
+}
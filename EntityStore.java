@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+// Almacén de entidades en estructura de arrays: cada propiedad es un array de
+// primitivos y la entidad i ocupa la posición i de todos ellos. Las entidades
+// vivas están siempre juntas en [0, size), así que los sistemas recorren
+// bucles sobre arrays contiguos sin objetos ni punteros, y crear o borrar no
+// reserva memoria salvo cuando crece la capacidad.
+//
+// Borrar mueve la última entidad al hueco (swap-remove): es O(1) pero cambia
+// los índices, así que un índice solo sirve dentro de un mismo recorrido. Por
+// ahora nadie guarda referencias a entidades entre pasos; si hiciera falta,
+// tocaría añadir asas con número de generación.
+//
+// Los arrays se sustituyen al crecer: no hay que guardarlos fuera de un
+// recorrido en el que no se creen entidades.
+public class EntityStore {
+
+    private static final int MAX_CAPACITY = 1 << 20;
+
+    protected int size;
+
+    // Columnas densas, indexadas por entidad
+    protected int[] x, y;
+    protected int[] prevX, prevY;
+    protected int[] width, height;
+    // Velocidad en píxeles por segundo y fracción de píxel pendiente
+    protected double[] vx, vy;
+    protected double[] subX, subY;
+    // y de referencia para movimientos que oscilan alrededor de una línea
+    protected int[] originY;
+    protected int[] type;
+    // Tiempo de animación (segundos desde que se creó la entidad)
+    protected double[] animTime;
+
+    public EntityStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        x = new int[capacity];
+        y = new int[capacity];
+        prevX = new int[capacity];
+        prevY = new int[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        subX = new double[capacity];
+        subY = new double[capacity];
+        originY = new int[capacity];
+        type = new int[capacity];
+        animTime = new double[capacity];
+    }
+
+    // Crea una entidad parada en (x, y) y devuelve su índice
+    public int create(int entityType, int ex, int ey, int w, int h) {
+        if (size == x.length) grow();
+        int i = size++;
+        x[i] = ex;
+        y[i] = ey;
+        prevX[i] = ex;
+        prevY[i] = ey;
+        width[i] = w;
+        height[i] = h;
+        vx[i] = 0;
+        vy[i] = 0;
+        subX[i] = 0;
+        subY[i] = 0;
+        originY[i] = ey;
+        type[i] = entityType;
+        animTime[i] = 0;
+        return i;
+    }
+
+    // Borra la entidad i moviendo la última a su lugar. Al recorrer de mayor a
+    // menor índice se puede borrar la actual sin saltarse ninguna.
+    public void remove(int i) {
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            prevX[i] = prevX[last];
+            prevY[i] = prevY[last];
+            width[i] = width[last];
+            height[i] = height[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            subX[i] = subX[last];
+            subY[i] = subY[last];
+            originY[i] = originY[last];
+            type[i] = type[last];
+            animTime[i] = animTime[last];
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Sistemas comunes: bucles sobre las columnas de todas las entidades
+
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+    }
+
+    // Deja este almacén igual que otro
+    public void copyFrom(EntityStore other) {
+        while (x.length < other.size) grow();
+        int n = other.size;
+        System.arraycopy(other.x, 0, x, 0, n);
+        System.arraycopy(other.y, 0, y, 0, n);
+        System.arraycopy(other.prevX, 0, prevX, 0, n);
+        System.arraycopy(other.prevY, 0, prevY, 0, n);
+        System.arraycopy(other.width, 0, width, 0, n);
+        System.arraycopy(other.height, 0, height, 0, n);
+        System.arraycopy(other.vx, 0, vx, 0, n);
+        System.arraycopy(other.vy, 0, vy, 0, n);
+        System.arraycopy(other.subX, 0, subX, 0, n);
+        System.arraycopy(other.subY, 0, subY, 0, n);
+        System.arraycopy(other.originY, 0, originY, 0, n);
+        System.arraycopy(other.type, 0, type, 0, n);
+        System.arraycopy(other.animTime, 0, animTime, 0, n);
+        size = n;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Demasiadas entidades: " + x.length);
+        }
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        subX = Arrays.copyOf(subX, capacity);
+        subY = Arrays.copyOf(subY, capacity);
+        originY = Arrays.copyOf(originY, capacity);
+        type = Arrays.copyOf(type, capacity);
+        animTime = Arrays.copyOf(animTime, capacity);
+    }
+
+    // Acceso por índice para el código fuera de los sistemas
+    public int size() { return size; }
+    public int getX(int i) { return x[i]; }
+    public int getY(int i) { return y[i]; }
+    public int getPrevX(int i) { return prevX[i]; }
+    public int getPrevY(int i) { return prevY[i]; }
+    public int getWidth(int i) { return width[i]; }
+    public int getHeight(int i) { return height[i]; }
+
+    // Caja que cubre el recorrido del paso, como GameObject.getSweptX
+    public int getSweptX(int i) { return Math.min(prevX[i], x[i]); }
+    public int getSweptY(int i) { return Math.min(prevY[i], y[i]); }
+    public int getSweptWidth(int i) { return width[i] + Math.abs(x[i] - prevX[i]); }
+    public int getSweptHeight(int i) { return height[i] + Math.abs(y[i] - prevY[i]); }
+}
@@ -0,0 +1,47 @@
+// Reloj de paso fijo: acumula el tiempo real transcurrido entre fotogramas y lo
+// convierte en un número entero de pasos de simulación. La fracción sobrante
+// (alpha) se usa para interpolar el dibujo entre los dos últimos estados.
+public class FixedStepClock {
+
+    // Tiempo máximo recuperado por fotograma (5 pasos a 60 Hz) para no entrar
+    // en espiral cuando el equipo va lento
+    private static final long MAX_CATCH_UP_NANOS = 1_000_000_000L / 12;
+
+    private final long stepNanos;
+    private long lastTime = -1;
+    private long accumulator = 0;
+
+    public FixedStepClock(int ticksPerSecond) {
+        this.stepNanos = 1_000_000_000L / ticksPerSecond;
+    }
+
+    // Devuelve cuántos pasos de simulación hay que ejecutar en este fotograma
+    public int advance(long now) {
+        if (lastTime < 0) {
+            lastTime = now;
+            return 0;
+        }
+        long elapsed = now - lastTime;
+        lastTime = now;
+
+        accumulator += Math.min(Math.max(0, elapsed), Math.max(stepNanos, MAX_CATCH_UP_NANOS));
+        int steps = (int) (accumulator / stepNanos);
+        accumulator -= steps * stepNanos;
+        return steps;
+    }
+
+    // Fracción [0, 1) del siguiente paso ya transcurrida
+    public double getAlpha() {
+        return accumulator / (double) stepNanos;
+    }
+
+    // Olvida el tiempo acumulado (al pausar o reiniciar)
+    public void reset() {
+        lastTime = -1;
+        accumulator = 0;
+    }
+
+    public long getStepNanos() {
+        return stepNanos;
+    }
+}
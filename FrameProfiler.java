@@ -0,0 +1,313 @@
+import java.awt.*;
+import java.util.Arrays;
+
+// Perfilador de tiempos por fase. Cada fase guarda las últimas muestras en un
+// histograma de ventana deslizante sin reservar memoria durante la partida, de
+// modo que medir no provoca pausas del recolector. Las cubetas son logarítmicas
+// (16 por cada potencia de dos, error de un 6% como mucho), así que un tirón de
+// 80 ms se ve como tal y no queda recortado en el límite de la tabla.
+// El overlay (F3) muestra p50/p99/máximo por fase, el número de objetos de
+// cada lista y una gráfica con la duración de los últimos fotogramas.
+public class FrameProfiler {
+
+    public enum Phase {
+        // Lógica (GameEngine.step)
+        UPDATE_PLAYER("updatePlayer"),
+        GENERATE("generateGameObjects"),
+        UPDATE_OBJECTS("updateObjects"),
+        COLLISIONS("checkCollisions"),
+        CLEANUP("cleanupObjects"),
+        SCORE("updateScore"),
+        EVENTS("dispatchEvents"),
+        CONDITIONS("checkGameConditions"),
+        SOUNDS("updateSounds"),
+        STEP("paso completo"),
+        // Dibujo (renderFrame)
+        DRAW_BACKGROUND("drawBackground"),
+        DRAW_GAME("drawGame"),
+        DRAW_UI("drawUI"),
+        RENDER("dibujo completo"),
+        // Tiempo entre el inicio de dos fotogramas consecutivos
+        FRAME("fotograma");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final int WINDOW = 240;
+    // Bits bajo el más alto que distinguen cubetas: 2^SUB_BITS por potencia de dos
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    // Hasta 2^40 ns (unos 18 minutos); lo demás cae en la última
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+    private static final Phase[] PHASES = Phase.values();
+
+    private static final Color BACKDROP = new Color(0, 0, 0, 170);
+    private static final Color BUDGET_LINE = new Color(255, 80, 80);
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    // Etiquetas de las reservas, en el orden de EntityPools.all()
+    private static final String[] POOL_LABELS = { "obst", "enem", "pwr", "nub" };
+
+    private final int[][] counts = new int[PHASES.length][BUCKETS];
+    private final long[][] samples = new long[PHASES.length][WINDOW];
+    private final int[] cursor = new int[PHASES.length];
+    private final int[] filled = new int[PHASES.length];
+
+    private long lastFrameStart;
+    private volatile boolean overlayVisible;
+    // Regulador de objetos cuyo estado se muestra en el overlay (opcional)
+    private EntityGovernor governor;
+    // Resolución interna que se muestra en el overlay (opcional)
+    private DynamicResolution resolution;
+
+    // Buffers reutilizados por el overlay
+    private final StringBuilder text = new StringBuilder(96);
+    private char[] chars = new char[96];
+    private final int[] sparkX = new int[WINDOW];
+    private final int[] sparkY = new int[WINDOW];
+
+    public void record(Phase phase, long nanos) {
+        int p = phase.ordinal();
+        int slot = cursor[p];
+        if (filled[p] == WINDOW) {
+            // Sacar de la ventana la muestra más antigua
+            counts[p][bucketOf(samples[p][slot])]--;
+        } else {
+            filled[p]++;
+        }
+        samples[p][slot] = nanos;
+        counts[p][bucketOf(nanos)]++;
+        cursor[p] = slot + 1 == WINDOW ? 0 : slot + 1;
+    }
+
+    // Marca el inicio de un fotograma y registra el tiempo desde el anterior
+    public void frameStarted(long now) {
+        if (lastFrameStart != 0) {
+            record(Phase.FRAME, now - lastFrameStart);
+        }
+        lastFrameStart = now;
+    }
+
+    // Por debajo de 16 ns una cubeta por valor; por encima, el exponente del
+    // bit más alto y los 4 bits siguientes
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) Math.max(0, nanos);
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent >= MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Límite superior de una cubeta, en nanosegundos
+    private static long bucketLimit(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket + 1;
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS);
+    }
+
+    // Percentil aproximado (límite superior de la cubeta), en nanosegundos
+    public long percentile(Phase phase, double fraction) {
+        int p = phase.ordinal();
+        int total = filled[p];
+        if (total == 0) return 0;
+        int target = (int) Math.ceil(total * fraction);
+        int seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[p][b];
+            if (seen >= target) {
+                return bucketLimit(b);
+            }
+        }
+        return bucketLimit(BUCKETS - 1);
+    }
+
+    public long max(Phase phase) {
+        int p = phase.ordinal();
+        long max = 0;
+        for (int i = 0; i < filled[p]; i++) {
+            max = Math.max(max, samples[p][i]);
+        }
+        return max;
+    }
+
+    public int getSampleCount(Phase phase) {
+        return filled[phase.ordinal()];
+    }
+
+    public void reset() {
+        for (int p = 0; p < PHASES.length; p++) {
+            Arrays.fill(counts[p], 0);
+            cursor[p] = 0;
+            filled[p] = 0;
+        }
+        lastFrameStart = 0;
+    }
+
+    public void setGovernor(EntityGovernor governor) { this.governor = governor; }
+    public void setResolution(DynamicResolution resolution) { this.resolution = resolution; }
+
+    public boolean isOverlayVisible() { return overlayVisible; }
+    public void setOverlayVisible(boolean visible) { this.overlayVisible = visible; }
+    public void toggleOverlay() { overlayVisible = !overlayVisible; }
+
+    public void drawOverlay(Graphics2D g2d, GameEngine engine) {
+        int x = 10;
+        int y = 130;
+        int w = 330;
+        int lineHeight = 14;
+        int h = (PHASES.length + 6 + (governor != null ? 3 : 0) + (resolution != null ? 1 : 0)) * lineHeight + 60;
+
+        g2d.setColor(BACKDROP);
+        g2d.fillRect(x, y, w, h);
+        g2d.setFont(OVERLAY_FONT);
+
+        int line = y + lineHeight;
+        g2d.setColor(Color.YELLOW);
+        text.setLength(0);
+        text.append("fase                    p50    p99    máx (ms)");
+        drawText(g2d, x + 6, line);
+        for (Phase phase : PHASES) {
+            line += lineHeight;
+            text.setLength(0);
+            text.append(phase.getLabel());
+            pad(24);
+            appendMillis(percentile(phase, 0.50));
+            appendMillis(percentile(phase, 0.99));
+            appendMillis(max(phase));
+            g2d.setColor(phase == Phase.STEP || phase == Phase.RENDER || phase == Phase.FRAME
+                ? Color.CYAN : Color.WHITE);
+            drawText(g2d, x + 6, line);
+        }
+
+        // Objetos vivos por lista
+        line += lineHeight + 4;
+        g2d.setColor(Color.GREEN);
+        text.setLength(0);
+        text.append("obst ").append(engine.getObstacles().size())
+            .append("  enem ").append(engine.getEnemies().size())
+            .append("  proy ").append(engine.getProjectiles().size())
+            .append("  pwr ").append(engine.getPowerUps().size());
+        drawText(g2d, x + 6, line);
+        line += lineHeight;
+        text.setLength(0);
+        text.append("nubes ").append(engine.getClouds().size())
+            .append("  decorado ").append(engine.getWorldFeatures().size());
+        drawText(g2d, x + 6, line);
+
+        // Reservas de objetos: porcentaje reutilizado y máximo en uso a la vez
+        ObjectPool<?>[] pools = engine.getPools().all();
+        line += lineHeight;
+        text.setLength(0);
+        text.append("reutil.%");
+        for (int i = 0; i < pools.length; i++) {
+            text.append(' ').append(POOL_LABELS[i]).append(' ').append(Math.round(pools[i].getHitRate() * 100));
+        }
+        drawText(g2d, x + 6, line);
+        line += lineHeight;
+        text.setLength(0);
+        text.append("máx uso ");
+        for (int i = 0; i < pools.length; i++) {
+            text.append(' ').append(POOL_LABELS[i]).append(' ').append(pools[i].getHighWater());
+        }
+        drawText(g2d, x + 6, line);
+
+        // Regulador: nivel, carga media del fotograma y lo que ha aplazado o quitado
+        if (governor != null) {
+            line += lineHeight;
+            text.setLength(0);
+            text.append("regul. ").append(governor.getLoad().getLabel())
+                .append("  carga ").append(Math.round(governor.getFrameLoad() * 100)).append('%')
+                .append("  subidas ").append(governor.getRaises());
+            g2d.setColor(engine.isThrottled() ? Color.ORANGE : Color.GREEN);
+            drawText(g2d, x + 6, line);
+            line += lineHeight;
+            text.setLength(0);
+            text.append("aplaz. ").append(engine.getDeferredSpawns())
+                .append("  disp. ").append(engine.getDeferredShots())
+                .append("  aclar. ").append(engine.getThinnedCosmetics());
+            drawText(g2d, x + 6, line);
+            line += lineHeight;
+            text.setLength(0);
+            text.append("límites ");
+            appendBudget(engine.getObstacleBudget());
+            text.append('/');
+            appendBudget(engine.getEnemyBudget());
+            text.append('/');
+            appendBudget(engine.getProjectileBudget());
+            drawText(g2d, x + 6, line);
+        }
+
+        // Resolución interna: modo, tamaño al que se dibuja y bajadas de escala
+        if (resolution != null) {
+            line += lineHeight;
+            double scale = resolution.getScale();
+            text.setLength(0);
+            text.append("resol. ").append(resolution.getMode().getLabel())
+                .append("  ").append((int) Math.ceil(GameEngine.WIDTH * scale))
+                .append('x').append((int) Math.ceil(GameEngine.HEIGHT * scale))
+                .append("  bajadas ").append(resolution.getLowers());
+            g2d.setColor(resolution.getLowers() > resolution.getRaises() ? Color.ORANGE : Color.GREEN);
+            drawText(g2d, x + 6, line);
+        }
+
+        drawSparkline(g2d, x + 6, line + 8, w - 12, 40);
+    }
+
+    // Duración de los últimos fotogramas; la línea roja marca 16,7 ms
+    private void drawSparkline(Graphics2D g2d, int x, int y, int w, int h) {
+        int p = Phase.FRAME.ordinal();
+        int n = filled[p];
+        double scale = h / 33_333_333.0;
+        g2d.setColor(BUDGET_LINE);
+        int budget = y + h - (int) (16_666_667 * scale);
+        g2d.drawLine(x, budget, x + w, budget);
+        if (n < 2) return;
+        // Del más antiguo al más reciente
+        int start = n == WINDOW ? cursor[p] : 0;
+        for (int i = 0; i < n; i++) {
+            long nanos = Math.min(samples[p][(start + i) % WINDOW], 33_333_333L);
+            sparkX[i] = x + i * w / (WINDOW - 1);
+            sparkY[i] = y + h - (int) (nanos * scale);
+        }
+        g2d.setColor(Color.WHITE);
+        g2d.drawPolyline(sparkX, sparkY, n);
+    }
+
+    private void pad(int column) {
+        while (text.length() < column) text.append(' ');
+    }
+
+    // Milisegundos con dos decimales en una columna de 7 caracteres, sin String.format
+    private void appendMillis(long nanos) {
+        long hundredths = (nanos + 5_000) / 10_000;
+        int column = text.length() + 7;
+        long whole = hundredths / 100;
+        int frac = (int) (hundredths % 100);
+        int digits = whole >= 1000 ? 4 : whole >= 100 ? 3 : whole >= 10 ? 2 : 1;
+        for (int i = digits + 3; i < 7; i++) text.append(' ');
+        text.append(whole).append('.');
+        if (frac < 10) text.append('0');
+        text.append(frac);
+        pad(column);
+    }
+
+    // Límite de objetos vivos, "-" si no hay
+    private void appendBudget(int budget) {
+        if (budget == Integer.MAX_VALUE) text.append('-');
+        else text.append(budget);
+    }
+
+    private void drawText(Graphics2D g2d, int x, int y) {
+        int length = text.length();
+        if (chars.length < length) chars = new char[length * 2];
+        text.getChars(0, length, chars, 0);
+        g2d.drawChars(chars, 0, length, x, y);
+    }
+}
@@ -0,0 +1,1034 @@
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+// Motor de juego sin interfaz: contiene el mundo y toda la lógica de una partida.
+// No depende de ventanas, timers ni sonido, así que puede ejecutarse con
+// java.awt.headless=true tan rápido como permita la CPU. SkyRunnerGame solo
+// traduce el teclado a entradas, dibuja el estado y reproduce los sonidos.
+public class GameEngine {
+
+    public enum Difficulty { EASY, NORMAL, HARD }
+    public enum World { CLOUD_KINGDOM, CRYSTAL_CANYON, FLOATING_CITY }
+
+    // Dimensiones del mundo visible
+    public static final int WIDTH = 800;
+    public static final int HEIGHT = 600;
+
+    // Fracción del desplazamiento de la cámara que recorre la capa de nubes
+    public static final double CLOUD_PARALLAX = 0.3;
+
+    // Entradas de un paso de simulación (máscara de bits)
+    public static final int INPUT_LEFT = 1;
+    public static final int INPUT_RIGHT = 1 << 1;
+    public static final int INPUT_UP = 1 << 2;
+    public static final int INPUT_DOWN = 1 << 3;
+    public static final int INPUT_FIRE = 1 << 4;
+    // No es una tecla: lo añade EntityGovernor cuando los fotogramas no llegan
+    // a tiempo. Mientras está puesto encogen los límites de obstáculos,
+    // enemigos y proyectiles vivos, y al quitarlo vuelven a crecer (ver
+    // adjustBudgets); al ir en las entradas queda en la grabación.
+    public static final int INPUT_THROTTLE = 1 << 5;
+
+    // Límites de objetos vivos por categoría: cada BUDGET_PERIOD segundos se
+    // reducen a 3/4 de lo que hay vivo (sin bajar del mínimo) con
+    // INPUT_THROTTLE, o crecen un paso sin él; por encima del techo no hay límite
+    private static final double BUDGET_PERIOD = 0.25;
+    private static final int OBSTACLE_FLOOR = 3, OBSTACLE_STEP = 1, OBSTACLE_CEILING = 64;
+    private static final int ENEMY_FLOOR = 2, ENEMY_STEP = 1, ENEMY_CEILING = 32;
+    private static final int PROJECTILE_FLOOR = 48, PROJECTILE_STEP = 16, PROJECTILE_CEILING = 4096;
+
+    // Avisos para la capa de presentación (sonidos, cambio de pantalla...)
+    public interface Listener {
+        default void onShoot() {}
+        default void onExplosion() {}
+        default void onPowerUp() {}
+        default void onGameOver() {}
+        default void onGameComplete() {}
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {};
+
+    private final Difficulty difficulty;
+    private final World world;
+    private final GameRandom random;
+    private final SpawnTuning tuning;
+    // Pasos por segundo y duración de cada paso en segundos
+    private final int ticksPerSecond;
+    private final double dt;
+    private Listener listener = NO_LISTENER;
+    private FrameProfiler profiler;
+
+    private Aero player;
+    private LevelManager levelManager;
+
+    // Listas de objetos del juego; los proyectiles, los más numerosos, van en
+    // un almacén de arrays (ProjectileStore)
+    private ArrayList<Obstacle> obstacles;
+    private ArrayList<Enemy> enemies;
+    private final ProjectileStore projectiles = new ProjectileStore();
+    // Reservas de obstáculos, enemigos, power-ups y nubes: lo que se retira de
+    // las listas vuelve a su reserva y se reutiliza en la siguiente generación
+    private final EntityPools pools = new EntityPools();
+    private ArrayList<PowerUp> powerUps;
+    private ArrayList<Cloud> clouds;
+    private ArrayList<WorldFeature> worldFeatures;
+    // Límites de lo decorativo (EntityGovernor); no cambian la partida
+    private int cloudBudget = Integer.MAX_VALUE;
+    private int featureBudget = Integer.MAX_VALUE;
+    // Cambia cada vez que se añaden o quitan elementos de fondo visibles
+    // (ParallaxBackground vuelve a dibujar entonces sus tiras)
+    private int worldFeaturesVersion;
+    // Entradas del paso actual con INPUT_THROTTLE
+    private boolean throttled;
+    // Límites de objetos vivos que cambian la partida (ver adjustBudgets)
+    private int obstacleBudget = Integer.MAX_VALUE;
+    private int enemyBudget = Integer.MAX_VALUE;
+    private int projectileBudget = Integer.MAX_VALUE;
+    // Métricas del regulador: apariciones y disparos aplazados, decorado quitado
+    private long deferredSpawns;
+    private long deferredShots;
+    private long thinnedCosmetics;
+    // Sucesos del paso; se aplican juntos en dispatchEvents
+    private final GameEventBus events = new GameEventBus(64);
+
+    // Sistema de puntuación
+    private int score;
+    private int distance;
+    private long tick;
+
+    // Velocidad de desplazamiento del mundo y avance del recorrido (píxeles por segundo);
+    // las actuales cambian entre las del nivel sin turbo y con turbo
+    private double scrollSpeed;
+    private double baseScrollSpeed;
+    private double turboScrollSpeed;
+    private double progressSpeed;
+    private double baseProgressSpeed;
+    private double turboProgressSpeed;
+    // Cámara: posición en el mundo del borde izquierdo de la pantalla. Los
+    // obstáculos, enemigos, proyectiles y power-ups guardan coordenadas de
+    // mundo y no se tocan al desplazarse la pantalla; el jugador vive en
+    // coordenadas de pantalla. cameraPx es la parte entera, para generar,
+    // colisionar y limpiar; al dibujar se usa la posición con decimales.
+    private double cameraX;
+    private double prevCameraX;
+    private int cameraPx;
+    private int prevCameraPx;
+    // Fracciones pendientes para los pasos siguientes
+    private double progressRemainder;
+    private double distanceScoreRemainder;
+
+    // Sistema de generación (x de mundo del último objeto generado)
+    private int lastObstacleX = WIDTH;
+    private int lastEnemyX = WIDTH;
+    private int lastPowerUpX = WIDTH;
+
+    // Fase amplia de colisiones: rejilla de 64 px sobre la pantalla y un
+    // margen a cada lado, reconstruida en cada paso
+    private static final int GRID_MARGIN = 256;
+    private static final int TURBINE_RADIUS = 120;
+    private final SpatialGrid grid = new SpatialGrid(64, WIDTH + 2 * GRID_MARGIN, HEIGHT);
+
+    // Disparos extra de los enemigos en HARD a partir de la mitad del nivel:
+    // dos paralelos, 6 px por encima a 480 px/s y 6 px por debajo a 540 px/s
+    private static final BulletPattern HARD_FLANK_SHOTS =
+        BulletPattern.spread(2, 0, 480.0).withSpacing(12).withSpeedStep(60);
+
+    // Actualización en paralelo de las listas muy grandes (ParallelRange); null
+    // (por defecto) para hacerlo todo en el hilo del motor. El juego le da el
+    // pool común; las herramientas sin pantalla, que ya reparten partidas
+    // entre hilos, lo dejan en serie. Los cuerpos se crean una vez para que el
+    // camino en serie no reserve memoria.
+    private ForkJoinPool updatePool;
+    private final ParallelRange.Body cloudRange = this::updateClouds;
+    private final ParallelRange.Body obstacleRange = this::updateObstacles;
+    private final ParallelRange.Body enemyRange = this::updateEnemies;
+    private final ParallelRange.Body projectileRange = this::updateProjectiles;
+    private final ParallelRange.Body powerUpRange = this::updatePowerUps;
+
+    // Estado de la partida
+    private boolean gameOver = false;
+    private boolean gameComplete = false;
+
+    public GameEngine(Difficulty difficulty, World world) {
+        this(difficulty, world, GameRandom.newSeed());
+    }
+
+    // Misma semilla y mismas entradas producen exactamente la misma partida
+    public GameEngine(Difficulty difficulty, World world, long seed) {
+        this(difficulty, world, seed, SpawnTuning.defaults(difficulty));
+    }
+
+    public GameEngine(Difficulty difficulty, World world, long seed, SpawnTuning tuning) {
+        this(difficulty, world, seed, tuning, TickRate.DEFAULT);
+    }
+
+    // La partida avanza igual a cualquier frecuencia soportada (30, 60, 120 o 240 Hz)
+    public GameEngine(Difficulty difficulty, World world, long seed, SpawnTuning tuning, int ticksPerSecond) {
+        this.difficulty = difficulty;
+        this.world = world;
+        this.random = new GameRandom(seed);
+        this.tuning = tuning;
+        this.ticksPerSecond = TickRate.validate(ticksPerSecond);
+        this.dt = 1.0 / ticksPerSecond;
+
+        player = new Aero(WIDTH / 4, HEIGHT / 2);
+        levelManager = new LevelManager(difficulty.name(), world.name(), random, pools);
+
+        obstacles = new ArrayList<>();
+        enemies = new ArrayList<>();
+        powerUps = new ArrayList<>();
+        clouds = new ArrayList<>();
+        worldFeatures = new ArrayList<>();
+
+        // Configurar velocidad base
+        configureSpeeds();
+
+        score = 0;
+        distance = 0;
+        tick = 0;
+
+        // Generar nubes iniciales
+        generateInitialClouds();
+        // Generar elementos emblemáticos del mundo
+        generateInitialWorldFeatures();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+    }
+
+    // Perfilador opcional de las fases de cada paso (null = sin medir)
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    // Máximo de nubes y de elementos de fondo vivos; lo que sobra se retira en
+    // cleanupObjects empezando por los últimos en aparecer
+    public void setCosmeticBudget(int clouds, int features) {
+        this.cloudBudget = clouds;
+        this.featureBudget = features;
+    }
+
+    // Pool para actualizar en paralelo las listas grandes (null = siempre en serie)
+    public void setUpdatePool(ForkJoinPool pool) {
+        this.updatePool = pool;
+    }
+
+    // Avanza la simulación un paso fijo con las entradas indicadas
+    public void step(int inputs) {
+        if (isFinished()) return;
+
+        long stepStart = mark();
+        throttled = (inputs & INPUT_THROTTLE) != 0;
+        adjustBudgets();
+        savePreviousPositions();
+
+        // Actualizar jugador
+        long t = stepStart;
+        updatePlayer(inputs);
+        player.setLives(levelManager.getLives());
+        t = lap(FrameProfiler.Phase.UPDATE_PLAYER, t);
+
+        // Actualizar nivel: solo avanza la cámara, sin redondear la velocidad
+        cameraX += scrollSpeed * dt;
+        cameraPx = (int) cameraX;
+        double progress = progressSpeed * dt + progressRemainder;
+        int advanced = (int) progress;
+        progressRemainder = progress - advanced;
+        distance += advanced;
+        levelManager.update(advanced);
+        addDistanceScore();
+
+        // Generar objetos
+        generateGameObjects();
+        t = lap(FrameProfiler.Phase.GENERATE, t);
+
+        // Actualizar objetos
+        updateObjects();
+        t = lap(FrameProfiler.Phase.UPDATE_OBJECTS, t);
+
+        // Verificar colisiones
+        checkCollisions();
+        t = lap(FrameProfiler.Phase.COLLISIONS, t);
+
+        // Limpiar objetos fuera de pantalla
+        cleanupObjects();
+        t = lap(FrameProfiler.Phase.CLEANUP, t);
+
+        // Actualizar puntuación
+        updateScore();
+        t = lap(FrameProfiler.Phase.SCORE, t);
+
+        // Aplicar los sucesos del paso
+        dispatchEvents();
+        t = lap(FrameProfiler.Phase.EVENTS, t);
+
+        // Verificar condiciones de victoria/derrota
+        checkGameConditions();
+        lap(FrameProfiler.Phase.CONDITIONS, t);
+
+        tick++;
+        lap(FrameProfiler.Phase.STEP, stepStart);
+    }
+
+    // Medición de fases: sin perfilador no se llama a System.nanoTime
+    private long mark() {
+        return profiler != null ? System.nanoTime() : 0L;
+    }
+
+    private long lap(FrameProfiler.Phase phase, long start) {
+        if (profiler == null) return 0L;
+        long now = System.nanoTime();
+        profiler.record(phase, now - start);
+        return now;
+    }
+
+    // Encoge o hace crecer los límites de objetos vivos según INPUT_THROTTLE.
+    // Solo depende de las entradas, así que una repetición los reproduce.
+    private void adjustBudgets() {
+        if (tick % Math.max(1, Math.round(BUDGET_PERIOD * ticksPerSecond)) != 0) return;
+        obstacleBudget = nextBudget(obstacleBudget, obstacles.size(), OBSTACLE_FLOOR, OBSTACLE_STEP, OBSTACLE_CEILING);
+        enemyBudget = nextBudget(enemyBudget, enemies.size(), ENEMY_FLOOR, ENEMY_STEP, ENEMY_CEILING);
+        projectileBudget = nextBudget(projectileBudget, projectiles.size(), PROJECTILE_FLOOR, PROJECTILE_STEP, PROJECTILE_CEILING);
+    }
+
+    private int nextBudget(int budget, int live, int floor, int step, int ceiling) {
+        if (throttled) {
+            return Math.max(floor, Math.min(budget, live) * 3 / 4);
+        }
+        if (budget == Integer.MAX_VALUE) return budget;
+        budget += step;
+        return budget > ceiling ? Integer.MAX_VALUE : budget;
+    }
+
+    // Probabilidad por paso equivalente a una por paso de 60 Hz
+    private double chance(double chanceAtReference) {
+        return TickRate.chancePerTick(chanceAtReference, dt);
+    }
+
+    // Velocidades del nivel actual, empezando sin turbo
+    private void configureSpeeds() {
+        Level level = levelManager.getCurrentLevel();
+        baseScrollSpeed = level.getScrollSpeed();
+        turboScrollSpeed = level.getTurboScrollSpeed();
+        baseProgressSpeed = level.getProgressSpeed();
+        turboProgressSpeed = level.getTurboProgressSpeed();
+        scrollSpeed = baseScrollSpeed;
+        progressSpeed = baseProgressSpeed;
+    }
+
+    // Puntuación por distancia recorrida: los puntos por segundo del nivel
+    // (los mismos que se sumaban por fotograma a 60 FPS), más con turbo
+    private void addDistanceScore() {
+        Level level = levelManager.getCurrentLevel();
+        int rate = scrollSpeed > baseScrollSpeed ? level.getTurboDistanceScoreRate() : level.getDistanceScoreRate();
+        double points = rate * dt + distanceScoreRemainder;
+        int whole = (int) points;
+        distanceScoreRemainder = points - whole;
+        score += whole;
+    }
+
+    // Los obstáculos y el decorado no se mueven en su capa: basta con la cámara
+    private void savePreviousPositions() {
+        prevCameraX = cameraX;
+        prevCameraPx = cameraPx;
+        player.savePreviousPosition();
+        for (int i = 0; i < clouds.size(); i++) clouds.get(i).savePreviousPosition();
+        for (int i = 0; i < enemies.size(); i++) enemies.get(i).savePreviousPosition();
+        projectiles.savePreviousPositions();
+        for (int i = 0; i < powerUps.size(); i++) powerUps.get(i).savePreviousPosition();
+    }
+
+    private void generateInitialClouds() {
+        SplittableRandom cosmetic = random.cosmetic();
+        for (int i = 0; i < 8; i++) {
+            int x = (int)(cosmetic.nextDouble() * WIDTH * 2);
+            int y = (int)(cosmetic.nextDouble() * HEIGHT * 0.7);
+            clouds.add(pools.cloud(x, y, 1, cosmetic));
+        }
+        // Ordenadas por x para poder retirarlas por el principio de la lista
+        clouds.sort(Comparator.comparingInt(cloud -> cloud.x));
+    }
+
+    private void generateInitialWorldFeatures() {
+        Color themeColor;
+        switch (world) {
+            case CLOUD_KINGDOM: themeColor = new Color(139, 90, 60, 180); break; // rocas
+            case CRYSTAL_CANYON: themeColor = new Color(120, 180, 255, 200); break; // cristal
+            case FLOATING_CITY: themeColor = new Color(140, 150, 180, 200); break; // edificios
+            default: themeColor = new Color(150, 150, 150, 180);
+        }
+        SplittableRandom cosmetic = random.cosmetic();
+        for (int i = 0; i < 6; i++) {
+            int x = (int)(cosmetic.nextDouble() * WIDTH);
+            int baseY = HEIGHT - 100 - (int)(cosmetic.nextDouble() * 120);
+            addWorldFeature(x, baseY, themeColor, true);
+        }
+        worldFeatures.sort(Comparator.comparingDouble(wf -> wf.getScreenX(cameraX)));
+    }
+
+    private void updatePlayer(int inputs) {
+        // Movimiento del jugador
+        if ((inputs & INPUT_LEFT) != 0) player.moveLeft(dt);
+        if ((inputs & INPUT_RIGHT) != 0) player.moveRight(dt);
+        if ((inputs & INPUT_UP) != 0) player.moveUp(dt);
+        if ((inputs & INPUT_DOWN) != 0) player.moveDown(dt);
+
+        // Disparar
+        if ((inputs & INPUT_FIRE) != 0) {
+            if (player.shoot(projectiles, cameraPx)) {
+                events.emit(GameEventBus.Type.SHOT_FIRED);
+            }
+        }
+
+        // Actualizar jugador
+        player.update(dt);
+
+        // Aplicar efecto de turbo
+        if (player.isTurboActive()) {
+            scrollSpeed = turboScrollSpeed;
+            progressSpeed = turboProgressSpeed;
+        } else {
+            scrollSpeed = baseScrollSpeed;
+            progressSpeed = baseProgressSpeed;
+        }
+    }
+
+    private void generateGameObjects() {
+        Level currentLevel = levelManager.getCurrentLevel();
+        double completion = currentLevel.getCompletionPercentage();
+        int levelNum = currentLevel.getLevelNumber();
+        SplittableRandom spawn = random.spawn();
+        SplittableRandom cosmetic = random.cosmetic();
+        // Todo aparece fuera de la pantalla por la derecha, así cada lista
+        // queda ordenada por x de mundo
+        int spawnX = cameraPx + WIDTH + 100;
+        int screenRight = cameraPx + WIDTH;
+
+        // Generar nubes (sin multiplicador de dificultad); la capa de nubes
+        // tiene su propia coordenada x, desplazada por CLOUD_PARALLAX
+        double obstacleEnemyMultiplier = tuning.multiplierAt(completion);
+        if (cosmetic.nextDouble() < chance(0.02) && clouds.size() < cloudBudget) {
+            int y = (int)(cosmetic.nextDouble() * HEIGHT * 0.7);
+            clouds.add(pools.cloud(WIDTH + 100 + (int)(cameraX * CLOUD_PARALLAX), y, 1, cosmetic));
+        }
+
+        // Con INPUT_THROTTLE la dificultad deja de crecer: se queda en el
+        // multiplicador de la primera mitad (x8 en HARD), sin el de la segunda
+        // (x14), ni en el ritmo ni en el máximo de enemigos
+        if (throttled && obstacleEnemyMultiplier > tuning.getEarlyMultiplier()) {
+            obstacleEnemyMultiplier = tuning.getEarlyMultiplier();
+        }
+
+        // Generar obstáculos
+        if (world == World.FLOATING_CITY) {
+            // Generación constante de edificios en Ciudad Flotante
+            if (lastObstacleX < screenRight - 220) {
+                Obstacle building = (Obstacle) levelManager.generateObstacle(spawnX, 0);
+                obstacles.add(building);
+                events.emit(GameEventBus.Type.OBSTACLE_SPAWNED);
+                lastObstacleX = spawnX;
+            }
+        } else {
+            boolean due = spawn.nextDouble() < chance(currentLevel.getObstacleSpawnRate() * tuning.getObstacleRateScale() * obstacleEnemyMultiplier) &&
+                lastObstacleX < screenRight - 200;
+            if (due && obstacles.size() >= obstacleBudget) {
+                // Se vuelve a intentar en los pasos siguientes
+                deferredSpawns++;
+            } else if (due) {
+                int y1 = (int)(spawn.nextDouble() * (HEIGHT - 150)) + 50;
+                Obstacle o1 = (Obstacle) levelManager.generateObstacle(spawnX, y1);
+                if (o1.getType() == Obstacle.Type.ELECTRIC_STORM) {
+                    int SAFE_TOP = 120;
+                    if (y1 < SAFE_TOP) {
+                        y1 = SAFE_TOP;
+                        o1.y = y1;
+                    }
+                }
+                obstacles.add(o1);
+                events.emit(GameEventBus.Type.OBSTACLE_SPAWNED);
+                if (levelNum == 1 && completion >= 50.0) {
+                    if (spawn.nextDouble() < 0.4) {
+                        int y2 = (int)(spawn.nextDouble() * (HEIGHT - 150)) + 50;
+                        if (Math.abs(y2 - y1) < 60) {
+                            y2 = Math.min(HEIGHT - 100, y1 + 80);
+                        }
+                        Obstacle o2 = (Obstacle) levelManager.generateObstacle(spawnX, y2);
+                        if (o2.getType() == Obstacle.Type.ELECTRIC_STORM) {
+                            int SAFE_TOP = 120;
+                            if (y2 < SAFE_TOP) {
+                                y2 = SAFE_TOP;
+                                o2.y = y2;
+                            }
+                        }
+                        obstacles.add(o2);
+                        events.emit(GameEventBus.Type.OBSTACLE_SPAWNED);
+                    }
+                }
+                lastObstacleX = spawnX;
+            }
+        }
+
+        // Generar enemigos
+        double enemyRate = currentLevel.getEnemySpawnRate() * tuning.getEnemyRateScale() * obstacleEnemyMultiplier;
+        int maxEnemies = (int)Math.round(currentLevel.getMaxEnemies() * tuning.getMaxEnemiesScale());
+        int maxAllowedEnemies = Math.max(maxEnemies, (int)(maxEnemies * obstacleEnemyMultiplier));
+        if (spawn.nextDouble() < chance(enemyRate) &&
+            lastEnemyX < screenRight - 300) {
+            if (enemies.size() < Math.min(maxAllowedEnemies, enemyBudget)) {
+                int y = (int)(spawn.nextDouble() * (HEIGHT - 150)) + 50;
+                enemies.add(levelManager.generateEnemy(spawnX, y));
+                events.emit(GameEventBus.Type.ENEMY_SPAWNED);
+                lastEnemyX = spawnX;
+            } else if (enemies.size() < maxAllowedEnemies) {
+                deferredSpawns++;
+            }
+        }
+
+        // Generar power-ups
+        if (spawn.nextDouble() < chance(currentLevel.getPowerUpSpawnRate() * tuning.getPowerUpRateScale()) &&
+            lastPowerUpX < screenRight - 400) {
+            int y = (int)(spawn.nextDouble() * (HEIGHT - 150)) + 50;
+            PowerUp pu = levelManager.generatePowerUp(spawnX, y);
+            if (pu != null) {
+                powerUps.add(pu);
+                events.emit(GameEventBus.Type.POWER_UP_SPAWNED);
+            }
+            lastPowerUpX = spawnX;
+        }
+
+        // Generar elementos de fondo temáticos ocasionalmente
+        if (cosmetic.nextDouble() < chance(0.02) && worldFeatures.size() < featureBudget) {
+            Color themeColor;
+            switch (world) {
+                case CLOUD_KINGDOM: themeColor = new Color(139, 90, 60, 180); break;
+                case CRYSTAL_CANYON: themeColor = new Color(120, 180, 255, 200); break;
+                case FLOATING_CITY: themeColor = new Color(140, 150, 180, 200); break;
+                default: themeColor = new Color(150, 150, 150, 180);
+            }
+            addWorldFeature(WIDTH + 120, HEIGHT - 120 - (int)(cosmetic.nextDouble() * 100), themeColor, false);
+        }
+    }
+
+    // updateObjects, checkCollisions y cleanupObjects son visibles en el paquete
+    // para poder medirlos por separado desde los benchmarks (bench/)
+    //
+    // Cada objeto se actualiza sin mirar a los demás, así que las listas
+    // grandes se reparten entre hilos (ParallelRange). Lo que comparten, los
+    // disparos de los enemigos y el generador aleatorio de la IA, va después
+    // en una pasada en serie en orden de lista: la partida es la misma en
+    // serie y en paralelo.
+    void updateObjects() {
+        // Actualizar nubes (solo su deriva propia; el parallax se aplica al dibujar)
+        ParallelRange.forEach(updatePool, clouds.size(), cloudRange);
+
+        // Actualizar obstáculos (animación; no se mueven en el mundo)
+        ParallelRange.forEach(updatePool, obstacles.size(), obstacleRange);
+
+        // Actualizar enemigos
+        ParallelRange.forEach(updatePool, enemies.size(), enemyRange);
+
+        // Disparos de los enemigos; apuntan al centro del jugador en el mundo
+        SplittableRandom ai = random.ai();
+        int targetX = cameraPx + player.getX() + player.getWidth() / 2;
+        int targetY = player.getY() + player.getHeight() / 2;
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            if (projectiles.size() >= projectileBudget) {
+                // Sin gastar el enfriamiento: dispara en cuanto haya sitio
+                if (enemy.canShoot()) deferredShots++;
+                continue;
+            }
+            if (enemy.canShoot()) {
+                double shootChance = 0.02;
+                double completionPct = levelManager.getCurrentLevel().getCompletionPercentage();
+                if (difficulty == Difficulty.HARD) {
+                    shootChance = completionPct >= 50.0 ? 0.04 : 0.03;
+                } else if (levelManager.getCurrentLevel().getLevelNumber() == 1 && completionPct >= 50.0) {
+                    shootChance = 0.025;
+                }
+                if (ai.nextDouble() < chance(shootChance)) {
+                    if (enemy.shoot(projectiles, targetX, targetY)) {
+                        // Los disparos de los lados solo si caben en el límite
+                        if (difficulty == Difficulty.HARD && completionPct >= 50.0
+                                && projectiles.size() + HARD_FLANK_SHOTS.getCount() <= projectileBudget) {
+                            HARD_FLANK_SHOTS.emit(projectiles, enemy.getX() - 10, enemy.getY() + enemy.getHeight()/2,
+                                                  true, targetX, targetY, 0);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Actualizar proyectiles (velocidad propia más la deriva en el mundo),
+        // incluidos los que se acaban de disparar
+        projectiles.beginUpdate(scrollSpeed);
+        ParallelRange.forEach(updatePool, projectiles.size(), projectileRange);
+
+        // Actualizar power-ups
+        ParallelRange.forEach(updatePool, powerUps.size(), powerUpRange);
+    }
+
+    // Tramos [from, to) de updateObjects; cada uno solo toca sus elementos
+    private void updateClouds(int from, int to) {
+        for (int i = from; i < to; i++) clouds.get(i).update(dt);
+    }
+
+    private void updateObstacles(int from, int to) {
+        for (int i = from; i < to; i++) obstacles.get(i).update(dt);
+    }
+
+    private void updateEnemies(int from, int to) {
+        for (int i = from; i < to; i++) enemies.get(i).update(dt);
+    }
+
+    private void updateProjectiles(int from, int to) {
+        projectiles.update(from, to, dt);
+    }
+
+    private void updatePowerUps(int from, int to) {
+        for (int i = from; i < to; i++) powerUps.get(i).update(dt);
+    }
+
+    // Rellena la rejilla con lo que puede chocar en este paso. Los índices son
+    // los de las listas en este momento: las bajas de una fase se hacen de
+    // mayor a menor índice o al final, para no invalidar los de las demás.
+    // En el almacén de proyectiles un borrado mueve el último al hueco, así
+    // que tras borrar uno solo siguen valiendo los índices menores.
+    // Enemigos y disparos enemigos ocupan todo su recorrido del paso, para el
+    // barrido de los proyectiles.
+    private void buildGrid() {
+        grid.clear(cameraPx - GRID_MARGIN);
+        for (int i = 0; i < obstacles.size(); i++) {
+            Obstacle obstacle = obstacles.get(i);
+            grid.insert(SpatialGrid.OBSTACLE, i, obstacle);
+            if (obstacle.getType() == Obstacle.Type.TURBINE) {
+                grid.insert(SpatialGrid.TURBINE, i, obstacle);
+            }
+            if (obstacle.hasLightningColumn()) {
+                grid.insert(SpatialGrid.STORM_COLUMN, i, obstacle.getLightningColumnX(), obstacle.getLightningColumnY(),
+                            Obstacle.LIGHTNING_COLUMN_WIDTH, obstacle.getLightningColumnHeight(HEIGHT));
+            }
+        }
+        for (int i = 0; i < enemies.size(); i++) {
+            grid.insertSwept(SpatialGrid.ENEMY, i, enemies.get(i));
+        }
+        for (int i = 0; i < projectiles.size(); i++) {
+            if (projectiles.isEnemyShot(i)) {
+                grid.insert(SpatialGrid.ENEMY_SHOT, i, projectiles.getSweptX(i), projectiles.getSweptY(i),
+                            projectiles.getSweptWidth(i), projectiles.getSweptHeight(i));
+            }
+        }
+        for (int i = 0; i < powerUps.size(); i++) {
+            grid.insert(SpatialGrid.POWER_UP, i, powerUps.get(i));
+        }
+    }
+
+    // Consultas a la rejilla en lugar de recorrer todas las listas: el coste
+    // crece con los objetos cercanos, no con el producto de las listas. Solo
+    // se usan cajas con enteros, sin reservar memoria.
+    void checkCollisions() {
+        buildGrid();
+        // Caja del jugador en coordenadas de mundo
+        int playerX = player.getHitboxX() + cameraPx;
+        int playerY = player.getHitboxY();
+        int playerWidth = player.getHitboxWidth();
+        int playerHeight = player.getHitboxHeight();
+        int px = playerX + playerWidth / 2;
+        int py = playerY + playerHeight / 2;
+        // Posición al empezar el paso, para el barrido de los disparos enemigos
+        int playerPrevX = player.getPrevHitboxX() + prevCameraPx;
+        int playerPrevY = player.getPrevHitboxY();
+        // Silueta del avión: tras solaparse las cajas se comparan los píxeles
+        CollisionMask playerMask = player.getCollisionMask();
+
+        // Turbinas: frenan al jugador si su centro está a menos de TURBINE_RADIUS
+        int hits = grid.query(px - TURBINE_RADIUS, py - TURBINE_RADIUS,
+                              2 * TURBINE_RADIUS + 1, 2 * TURBINE_RADIUS + 1, SpatialGrid.TURBINE);
+        for (int k = 0; k < hits; k++) {
+            Obstacle turbine = obstacles.get(grid.resultIndex(k));
+            int dx = px - (turbine.getHitboxX() + turbine.getHitboxWidth() / 2);
+            int dy = py - (turbine.getHitboxY() + turbine.getHitboxHeight() / 2);
+            if (dx * dx + dy * dy <= TURBINE_RADIUS * TURBINE_RADIUS) {
+                player.applySlow(0.35, 20.0 / TickRate.REFERENCE);
+            }
+        }
+
+        // Columnas de rayos de las tormentas eléctricas
+        hits = grid.query(playerX, playerY, playerWidth, playerHeight,
+                          SpatialGrid.STORM_COLUMN);
+        for (int k = 0; k < hits; k++) {
+            Obstacle storm = obstacles.get(grid.resultIndex(k));
+            boolean struck = CollisionMask.overlaps(playerMask, playerX, playerY, playerWidth, playerHeight,
+                null, storm.getLightningColumnX(), storm.getLightningColumnY(),
+                Obstacle.LIGHTNING_COLUMN_WIDTH, storm.getLightningColumnHeight(HEIGHT));
+            if (struck && !player.isInvulnerable()) {
+                if (player.applyDamage(34)) {
+                    events.emit(GameEventBus.Type.LIFE_LOST);
+                    player.healToFull();
+                }
+                player.setInvulnerable(1.0);
+                events.emit(GameEventBus.Type.PLAYER_HIT);
+            }
+        }
+
+        // Colisiones con obstáculos (de mayor a menor índice, como antes)
+        hits = grid.query(playerX, playerY, playerWidth, playerHeight,
+                          SpatialGrid.OBSTACLE);
+        for (int k = hits - 1; k >= 0; k--) {
+            int i = grid.resultIndex(k);
+            Obstacle obstacle = obstacles.get(i);
+            if (!obstacle.overlapsMask(playerMask, playerX, playerY, playerWidth, playerHeight)) continue;
+            if (obstacle.isHarmful() && !player.isInvulnerable()) {
+                if (player.applyDamage(34)) {
+                    events.emit(GameEventBus.Type.LIFE_LOST);
+                    player.healToFull();
+                }
+
+                events.emit(GameEventBus.Type.PLAYER_HIT);
+
+                // Aplicar efecto del obstáculo
+                obstacle.applyEffect(player);
+
+                // Hacer invulnerable temporalmente
+                player.setInvulnerable(1.0); // 1 segundo
+
+                // Romper el obstáculo si es destructible
+                if (obstacle.getType() == Obstacle.Type.ROCK_TOWER) {
+                    pools.getObstacles().release(obstacles.remove(i));
+                    events.emit(GameEventBus.Type.OBSTACLE_DESTROYED, 50); // Bonus por destruir obstáculo
+                }
+            }
+        }
+
+        // Colisiones con enemigos
+        hits = grid.query(playerX, playerY, playerWidth, playerHeight,
+                          SpatialGrid.ENEMY);
+        for (int k = hits - 1; k >= 0; k--) {
+            Enemy enemy = enemies.get(grid.resultIndex(k));
+            if (enemy.overlapsMask(playerMask, playerX, playerY, playerWidth, playerHeight) && !player.isInvulnerable()) {
+                if (player.applyDamage(34)) {
+                    events.emit(GameEventBus.Type.LIFE_LOST);
+                    player.healToFull();
+                }
+
+                events.emit(GameEventBus.Type.PLAYER_HIT);
+            }
+        }
+
+        // Colisiones con proyectiles enemigos: se barre el recorrido del disparo
+        // contra el del jugador, para que no lo atraviese a frecuencias bajas
+        int sweptX = Math.min(playerX, playerPrevX);
+        int sweptY = Math.min(playerY, playerPrevY);
+        hits = grid.query(sweptX, sweptY,
+                          playerWidth + Math.abs(playerX - playerPrevX),
+                          playerHeight + Math.abs(playerY - playerPrevY), SpatialGrid.ENEMY_SHOT);
+        for (int k = hits - 1; k >= 0; k--) {
+            int shot = grid.resultIndex(k);
+            double impact = GameObject.timeOfImpact(
+                projectiles.getPrevX(shot), projectiles.getPrevY(shot), projectiles.getX(shot), projectiles.getY(shot),
+                projectiles.getWidth(shot), projectiles.getHeight(shot), null,
+                playerPrevX, playerPrevY, playerX, playerY, playerWidth, playerHeight, playerMask);
+            if (impact != GameObject.NO_HIT && !player.isInvulnerable()) {
+                if (player.applyDamage(34)) {
+                    events.emit(GameEventBus.Type.LIFE_LOST);
+                    player.healToFull();
+                }
+                projectiles.remove(shot);
+
+                events.emit(GameEventBus.Type.PLAYER_HIT);
+            }
+        }
+
+        // Colisiones de proyectiles del jugador con enemigos. Cada proyectil da al
+        // primer enemigo que encuentra en su recorrido del paso (a igual instante,
+        // al de mayor índice); los derribados se quitan al final para que los
+        // índices de la rejilla sigan valiendo.
+        boolean enemyDown = false;
+        for (int i = projectiles.size() - 1; i >= 0; i--) {
+            if (projectiles.isEnemyShot(i)) continue;
+            hits = grid.query(projectiles.getSweptX(i), projectiles.getSweptY(i),
+                              projectiles.getSweptWidth(i), projectiles.getSweptHeight(i), SpatialGrid.ENEMY);
+            Enemy target = null;
+            double firstImpact = GameObject.NO_HIT;
+            for (int k = hits - 1; k >= 0; k--) {
+                Enemy enemy = enemies.get(grid.resultIndex(k));
+                if (enemy.getHealth() <= 0) continue;
+                double impact = GameObject.timeOfImpact(
+                    projectiles.getPrevX(i), projectiles.getPrevY(i), projectiles.getX(i), projectiles.getY(i),
+                    projectiles.getWidth(i), projectiles.getHeight(i), null,
+                    enemy.getPrevHitboxX(), enemy.getPrevHitboxY(), enemy.getHitboxX(), enemy.getHitboxY(),
+                    enemy.getHitboxWidth(), enemy.getHitboxHeight(), enemy.getCollisionMask());
+                if (impact < firstImpact) {
+                    firstImpact = impact;
+                    target = enemy;
+                }
+            }
+            if (target != null) {
+                target.takeDamage(50);
+                projectiles.remove(i);
+
+                if (target.getHealth() <= 0) {
+                    enemyDown = true;
+                    events.emit(GameEventBus.Type.ENEMY_DEFEATED, 100);
+                }
+            }
+        }
+        if (enemyDown) {
+            removeDefeatedEnemies();
+        }
+
+        // Colisiones con power-ups
+        hits = grid.query(playerX, playerY, playerWidth, playerHeight,
+                          SpatialGrid.POWER_UP);
+        for (int k = hits - 1; k >= 0; k--) {
+            PowerUp powerUp = powerUps.get(grid.resultIndex(k));
+            powerUp.applyEffect(player);
+            if (powerUp.type == PowerUp.Type.HEALTH) {
+                events.emit(GameEventBus.Type.LIFE_GAINED);
+                player.healToFull();
+            }
+            events.emit(GameEventBus.Type.POWER_UP_COLLECTED, 50);
+            pools.getPowerUps().release(powerUps.remove(grid.resultIndex(k)));
+        }
+    }
+
+    // Quita los enemigos derribados conservando el orden de los demás
+    private void removeDefeatedEnemies() {
+        int kept = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            if (enemy.getHealth() <= 0) {
+                pools.getEnemies().release(enemy);
+            } else {
+                enemies.set(kept++, enemy);
+            }
+        }
+        if (kept < enemies.size()) enemies.subList(kept, enemies.size()).clear();
+    }
+
+    // Las listas están ordenadas por x de aparición, así que lo que ha salido
+    // por la izquierda está al principio y se retira de una vez. Los enemigos
+    // derribados ya se quitan al colisionar. Los proyectiles van en los dos
+    // sentidos y se recorren todos.
+    void cleanupObjects() {
+        // Limpiar nubes
+        int cloudsOut = 0;
+        double cloudLimit = cameraX * CLOUD_PARALLAX - 200;
+        while (cloudsOut < clouds.size() && clouds.get(cloudsOut).x < cloudLimit) cloudsOut++;
+        pools.getClouds().releaseRange(clouds, 0, cloudsOut);
+        removeFirst(clouds, cloudsOut);
+
+        // Limpiar elementos del mundo
+        int featuresOut = 0;
+        while (featuresOut < worldFeatures.size() && worldFeatures.get(featuresOut).isOffScreen(cameraX)) featuresOut++;
+        removeFirst(worldFeatures, featuresOut);
+
+        // Aclarar lo decorativo por encima del límite del regulador, empezando
+        // por lo último en aparecer (a la derecha, aún fuera de la pantalla)
+        while (clouds.size() > cloudBudget) {
+            pools.getClouds().release(clouds.remove(clouds.size() - 1));
+            thinnedCosmetics++;
+        }
+        while (worldFeatures.size() > featureBudget) {
+            worldFeatures.remove(worldFeatures.size() - 1);
+            worldFeaturesVersion++;
+            thinnedCosmetics++;
+        }
+
+        // Limpiar obstáculos
+        removeLeading(obstacles, cameraPx - 200, pools.getObstacles());
+
+        // Limpiar enemigos
+        removeLeading(enemies, cameraPx - 200, pools.getEnemies());
+
+        // Limpiar proyectiles
+        projectiles.removeOutside(cameraPx - 50, cameraPx + WIDTH + 50, -50, HEIGHT + 50);
+
+        // Limpiar power-ups
+        removeLeading(powerUps, cameraPx - 100, pools.getPowerUps());
+    }
+
+    private static <T extends GameObject> void removeLeading(ArrayList<T> list, int minX, ObjectPool<T> pool) {
+        int count = 0;
+        while (count < list.size() && list.get(count).x < minX) count++;
+        pool.releaseRange(list, 0, count);
+        removeFirst(list, count);
+    }
+
+    // Sin crear la vista de subList cuando no hay nada que quitar (casi siempre)
+    private static void removeFirst(ArrayList<?> list, int count) {
+        if (count > 0) list.subList(0, count).clear();
+    }
+
+    private static <T> void releaseAll(ArrayList<T> list, ObjectPool<T> pool) {
+        pool.releaseRange(list, 0, list.size());
+        list.clear();
+    }
+
+    private void updateScore() {
+        // Puntuación por esquivar obstáculos (ordenados por x: se para en el primero sin pasar)
+        int passedX = cameraPx - 100;
+        for (int i = 0; i < obstacles.size(); i++) {
+            Obstacle obstacle = obstacles.get(i);
+            if (obstacle.x >= passedX) break;
+            if (obstacle.isActive()) {
+                events.emit(GameEventBus.Type.OBSTACLE_PASSED, 10);
+                obstacle.setActive(false);
+            }
+        }
+    }
+
+    // Efectos de los sucesos del paso, una vez al final. Puntuación, vidas y
+    // estadísticas del nivel en el orden en que ocurrieron (perder y ganar una
+    // vida no conmutan con el máximo de 3); los avisos a la presentación, uno
+    // por tipo aunque se repitan.
+    private void dispatchEvents() {
+        if (events.size() == 0) return;
+        for (int i = 0; i < events.size(); i++) {
+            score += events.getValue(i);
+            switch (events.getType(i)) {
+                case LIFE_LOST: levelManager.loseLife(); break;
+                case LIFE_GAINED: levelManager.addLife(); break;
+                case ENEMY_DEFEATED: levelManager.enemyDefeated(); break;
+                case OBSTACLE_PASSED: levelManager.obstaclePassed(); break;
+                default: break;
+            }
+        }
+        player.setLives(levelManager.getLives());
+
+        if (events.count(GameEventBus.Type.SHOT_FIRED) > 0) listener.onShoot();
+        if (events.count(GameEventBus.Type.PLAYER_HIT) > 0
+                || events.count(GameEventBus.Type.ENEMY_DEFEATED) > 0) {
+            listener.onExplosion();
+        }
+        if (events.count(GameEventBus.Type.POWER_UP_COLLECTED) > 0) listener.onPowerUp();
+        events.endTick();
+    }
+
+    private void checkGameConditions() {
+        // Verificar Game Over
+        if (player.getHealth() <= 0 || levelManager.isGameOver()) {
+            gameOver = true;
+            listener.onGameOver();
+        }
+
+        // Verificar avance de nivel o fin del juego
+        Level cur = levelManager.getCurrentLevel();
+        if (cur.isCompleted()) {
+            boolean advanced = levelManager.advanceLevel();
+            if (advanced) {
+                releaseAll(obstacles, pools.getObstacles());
+                releaseAll(enemies, pools.getEnemies());
+                projectiles.clear();
+                releaseAll(powerUps, pools.getPowerUps());
+                releaseAll(clouds, pools.getClouds());
+                worldFeatures.clear();
+                worldFeaturesVersion++;
+                lastObstacleX = cameraPx + WIDTH;
+                lastEnemyX = cameraPx + WIDTH;
+                lastPowerUpX = cameraPx + WIDTH;
+                configureSpeeds();
+                progressRemainder = 0;
+                generateInitialWorldFeatures();
+            } else if (levelManager.isGameComplete()) {
+                gameComplete = true;
+                listener.onGameComplete();
+            }
+        }
+    }
+
+    private void addWorldFeature(int x, int baseY, Color themeColor, boolean initial) {
+        SplittableRandom cosmetic = random.cosmetic();
+        double parallax = initial ? (0.3 + cosmetic.nextDouble() * 0.4) : (0.4 + cosmetic.nextDouble() * 0.3);
+        parallax = WorldFeature.snapParallax(parallax);
+        worldFeaturesVersion++;
+        float opacity = initial ? 0.35f : 0.45f;
+        // x en pantalla -> x en la capa del elemento
+        x += (int)(cameraX * parallax);
+        switch (world) {
+            case CLOUD_KINGDOM:
+                worldFeatures.add(new WorldFeature(x, baseY - 80, 80, 160,
+                        WorldFeature.Type.ROCK_SPIRE, parallax,
+                        new Color(themeColor.getRed(), themeColor.getGreen(), themeColor.getBlue(), 220), opacity));
+                break;
+            case CRYSTAL_CANYON:
+                worldFeatures.add(new WorldFeature(x, baseY - 70, 70, 150,
+                        WorldFeature.Type.CRYSTAL_SPIRE_BG, parallax,
+                        new Color(120, 200, 255, 210), opacity));
+                break;
+            case FLOATING_CITY:
+                // Alternar entre torres y turbinas
+                if (cosmetic.nextDouble() < 0.6) {
+                    worldFeatures.add(new WorldFeature(x, baseY - 100, 60 + (int)(cosmetic.nextDouble()*40), 160,
+                            WorldFeature.Type.CITY_TOWER, parallax,
+                            new Color(130, 140, 170, 220), opacity));
+                } else {
+                    worldFeatures.add(new WorldFeature(x, baseY - 60, 60, 120,
+                            WorldFeature.Type.CITY_TURBINE_BG, parallax,
+                            new Color(170, 180, 200, 220), opacity));
+                }
+                break;
+        }
+    }
+
+    // Resumen del estado para comprobar que una reproducción no se desincroniza
+    public int getStateHash() {
+        int h = Long.hashCode(tick);
+        h = 31 * h + score;
+        h = 31 * h + distance;
+        h = 31 * h + levelManager.getLives();
+        h = 31 * h + player.getX();
+        h = 31 * h + player.getY();
+        for (Obstacle obstacle : obstacles) h = 31 * h + obstacle.getX() * 7919 + obstacle.getY();
+        for (Enemy enemy : enemies) h = 31 * h + enemy.getX() * 7919 + enemy.getY();
+        for (int i = 0; i < projectiles.size(); i++) h = 31 * h + projectiles.getX(i) * 7919 + projectiles.getY(i);
+        for (PowerUp powerUp : powerUps) h = 31 * h + powerUp.getX() * 7919 + powerUp.getY();
+        h = 31 * h + obstacleBudget;
+        h = 31 * h + enemyBudget;
+        h = 31 * h + projectileBudget;
+        return h;
+    }
+
+    // Getters
+    public Difficulty getDifficulty() { return difficulty; }
+    public World getWorld() { return world; }
+    public long getSeed() { return random.getSeed(); }
+    public GameRandom getRandom() { return random; }
+    public SpawnTuning getTuning() { return tuning; }
+    public FrameProfiler getProfiler() { return profiler; }
+    public Aero getPlayer() { return player; }
+    public LevelManager getLevelManager() { return levelManager; }
+    public ArrayList<Obstacle> getObstacles() { return obstacles; }
+    public ArrayList<Enemy> getEnemies() { return enemies; }
+    public ProjectileStore getProjectiles() { return projectiles; }
+    public EntityPools getPools() { return pools; }
+    public ArrayList<PowerUp> getPowerUps() { return powerUps; }
+    public ArrayList<Cloud> getClouds() { return clouds; }
+    public ArrayList<WorldFeature> getWorldFeatures() { return worldFeatures; }
+    public int getWorldFeaturesVersion() { return worldFeaturesVersion; }
+    public int getScore() { return score; }
+    public boolean isThrottled() { return throttled; }
+    public long getDeferredSpawns() { return deferredSpawns; }
+    // Límites de objetos vivos (Integer.MAX_VALUE = sin límite)
+    public int getObstacleBudget() { return obstacleBudget; }
+    public int getEnemyBudget() { return enemyBudget; }
+    public int getProjectileBudget() { return projectileBudget; }
+    public long getDeferredShots() { return deferredShots; }
+    public long getThinnedCosmetics() { return thinnedCosmetics; }
+    public GameEventBus getEvents() { return events; }
+    public int getDistance() { return distance; }
+    public long getTick() { return tick; }
+    public double getScrollSpeed() { return scrollSpeed; }
+    public double getCameraX() { return cameraX; }
+    public double getPrevCameraX() { return prevCameraX; }
+    public int getCameraPx() { return cameraPx; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+    public double getTickSeconds() { return dt; }
+    public boolean isGameOver() { return gameOver; }
+    public boolean isGameComplete() { return gameComplete; }
+    public boolean isFinished() { return gameOver || gameComplete; }
+}
@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+// Sucesos de la partida en el paso actual. Las colisiones y la generación de
+// objetos solo apuntan aquí lo que ha pasado (tipo y valor, en dos arrays
+// reservados de antemano); GameEngine.dispatchEvents los aplica una vez al
+// final del paso: puntuación, vidas y estadísticas del nivel en el orden en
+// que ocurrieron, y los avisos de sonido agrupados, uno por tipo y paso
+// aunque haya habido cinco explosiones.
+//
+// También lleva la cuenta de todos los sucesos de la partida (telemetría).
+public class GameEventBus {
+
+    public enum Type {
+        SHOT_FIRED("disparos"),
+        PLAYER_HIT("golpes recibidos"),
+        LIFE_LOST("vidas perdidas"),
+        LIFE_GAINED("vidas ganadas"),
+        ENEMY_DEFEATED("enemigos derribados"),
+        OBSTACLE_DESTROYED("obstáculos rotos"),
+        OBSTACLE_PASSED("obstáculos esquivados"),
+        POWER_UP_COLLECTED("power-ups recogidos"),
+        OBSTACLE_SPAWNED("obstáculos generados"),
+        ENEMY_SPAWNED("enemigos generados"),
+        POWER_UP_SPAWNED("power-ups generados");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    // Sucesos del paso, en orden. Crece si un paso se pasa de la capacidad
+    // (no ocurre en una partida normal)
+    private Type[] types;
+    private int[] values;
+    private int size;
+    // Cuántos de cada tipo en este paso y en toda la partida
+    private final int[] tickCounts = new int[TYPES.length];
+    private final long[] totals = new long[TYPES.length];
+
+    public GameEventBus(int capacity) {
+        types = new Type[capacity];
+        values = new int[capacity];
+    }
+
+    public void emit(Type type) {
+        emit(type, 0);
+    }
+
+    // value: puntos que da el suceso (0 si no da)
+    public void emit(Type type, int value) {
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        types[size] = type;
+        values[size] = value;
+        size++;
+        tickCounts[type.ordinal()]++;
+    }
+
+    public int size() { return size; }
+    public Type getType(int i) { return types[i]; }
+    public int getValue(int i) { return values[i]; }
+
+    // Sucesos de un tipo en el paso actual
+    public int count(Type type) {
+        return tickCounts[type.ordinal()];
+    }
+
+    // Cierra el paso: pasa las cuentas a la telemetría y vacía el buffer
+    public void endTick() {
+        for (int t = 0; t < TYPES.length; t++) {
+            totals[t] += tickCounts[t];
+            tickCounts[t] = 0;
+        }
+        size = 0;
+    }
+
+    public long getTotal(Type type) {
+        return totals[type.ordinal()];
+    }
+
+    // Suma la telemetría de otra partida
+    public void addTotals(GameEventBus other) {
+        for (int t = 0; t < TYPES.length; t++) totals[t] += other.totals[t];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Type type : TYPES) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(type.getLabel()).append(' ').append(totals[type.ordinal()]);
+        }
+        return sb.toString();
+    }
+}
@@ -4,21 +4,182 @@ public abstract class GameObject {
     protected int x, y;
     protected int width, height;
     protected boolean active = true;
+    // Posición en el paso anterior, para interpolar el dibujo
+    protected int prevX, prevY;
+    // Fracción de píxel pendiente de los movimientos, para no perder
+    // desplazamientos menores de un píxel por paso a frecuencias altas
+    private double subX, subY;
+    // Márgenes de la caja de colisión respecto al rectángulo del objeto
+    // (positivos la encogen, negativos la agrandan). Las colisiones trabajan
+    // con enteros y no reservan memoria.
+    protected int hitboxLeft, hitboxTop, hitboxRight, hitboxBottom;
     
     public GameObject(int x, int y, int width, int height) {
         this.x = x;
         this.y = y;
         this.width = width;
         this.height = height;
+        this.prevX = x;
+        this.prevY = y;
     }
     
-    public abstract void update();
+    // Devuelve el estado común al de un objeto recién creado, para reutilizarlo
+    // desde un ObjectPool
+    protected void resetObject(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.prevX = x;
+        this.prevY = y;
+        subX = 0;
+        subY = 0;
+        active = true;
+    }
+    
+    // dt: duración del paso en segundos
+    public abstract void update(double dt);
     public abstract void draw(Graphics2D g2d);
     
+    protected void setHitboxInsets(int left, int top, int right, int bottom) {
+        hitboxLeft = left;
+        hitboxTop = top;
+        hitboxRight = right;
+        hitboxBottom = bottom;
+    }
+    
+    public int getHitboxX() { return x + hitboxLeft; }
+    public int getHitboxY() { return y + hitboxTop; }
+    public int getHitboxWidth() { return width - hitboxLeft - hitboxRight; }
+    public int getHitboxHeight() { return height - hitboxTop - hitboxBottom; }
+    
+    // Mismo criterio que Rectangle.intersects: un rectángulo vacío no toca nada
+    public static boolean intersects(int ax, int ay, int aw, int ah,
+                                     int bx, int by, int bw, int bh) {
+        return aw > 0 && ah > 0 && bw > 0 && bh > 0 &&
+               ax < bx + bw && bx < ax + aw && ay < by + bh && by < ay + ah;
+    }
+    
+    // Sin impacto durante el paso (ver sweep)
+    public static final double NO_HIT = Double.POSITIVE_INFINITY;
+    // Salto máximo entre comparaciones de máscaras a lo largo de un barrido
+    private static final int MASK_SAMPLE_STEP = 4;
+    
+    // Barrido de cajas: A se desplaza (dx, dy) a lo largo del paso y B está
+    // quieta (para dos objetos en movimiento se pasa el desplazamiento
+    // relativo). Devuelve la fracción del paso, entre 0 y 1, en que empiezan a
+    // solaparse, o NO_HIT. Sin desplazamiento equivale a intersects.
+    public static double sweep(int ax, int ay, int aw, int ah, int dx, int dy,
+                               int bx, int by, int bw, int bh) {
+        if (aw <= 0 || ah <= 0 || bw <= 0 || bh <= 0) return NO_HIT;
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
+        // En cada eje hay solape mientras bx - aw < ax + dx * t < bx + bw
+        if (dx == 0) {
+            if (ax + aw <= bx || bx + bw <= ax) return NO_HIT;
+        } else {
+            double t0 = (bx - aw - ax) / (double) dx;
+            double t1 = (bx + bw - ax) / (double) dx;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+        if (dy == 0) {
+            if (ay + ah <= by || by + bh <= ay) return NO_HIT;
+        } else {
+            double t0 = (by - ah - ay) / (double) dy;
+            double t1 = (by + bh - ay) / (double) dy;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+        }
+        if (enter >= exit || enter >= 1.0 || exit <= 0.0) return NO_HIT;
+        return Math.max(0.0, enter);
+    }
+    
+    // Instante del paso en que este objeto, desde su posición anterior hasta la
+    // actual, empieza a tocar una caja que se mueve de (bx0, by0) a (bx1, by1)
+    public double timeOfImpact(int bx0, int by0, int bx1, int by1, int bw, int bh, CollisionMask bMask) {
+        return timeOfImpact(prevX + hitboxLeft, prevY + hitboxTop, getHitboxX(), getHitboxY(),
+                            getHitboxWidth(), getHitboxHeight(), getCollisionMask(),
+                            bx0, by0, bx1, by1, bw, bh, bMask);
+    }
+    
+    // Lo mismo para dos cajas cualesquiera, también las que no son GameObject
+    // (los proyectiles de ProjectileStore). Si alguna tiene máscara, el tramo
+    // en que las cajas se solapan se recorre en saltos de como mucho
+    // MASK_SAMPLE_STEP píxeles comparando las máscaras.
+    public static double timeOfImpact(int ax0, int ay0, int ax1, int ay1, int aw, int ah, CollisionMask aMask,
+                                      int bx0, int by0, int bx1, int by1, int bw, int bh, CollisionMask bMask) {
+        int dx = (ax1 - ax0) - (bx1 - bx0);
+        int dy = (ay1 - ay0) - (by1 - by0);
+        double enter = sweep(ax0, ay0, aw, ah, dx, dy, bx0, by0, bw, bh);
+        if (enter == NO_HIT || (aMask == null && bMask == null)) return enter;
+        
+        int distance = Math.max(Math.abs(dx), Math.abs(dy));
+        int samples = (int) Math.ceil(distance * (1.0 - enter) / MASK_SAMPLE_STEP);
+        for (int i = 0; i <= samples; i++) {
+            double t = samples == 0 ? enter : enter + (1.0 - enter) * i / samples;
+            int ax = ax0 + (int) Math.round(dx * t);
+            int ay = ay0 + (int) Math.round(dy * t);
+            if (CollisionMask.overlaps(aMask, ax, ay, aw, ah, bMask, bx0, by0, bw, bh)) return t;
+        }
+        return NO_HIT;
+    }
+    
+    public double timeOfImpact(GameObject other) {
+        return timeOfImpact(other.getPrevHitboxX(), other.getPrevHitboxY(),
+                            other.getHitboxX(), other.getHitboxY(),
+                            other.getHitboxWidth(), other.getHitboxHeight(), other.getCollisionMask());
+    }
+    
+    // Máscara de píxeles de la caja de colisión en el fotograma actual; null
+    // si la caja entera es sólida
+    public CollisionMask getCollisionMask() {
+        return null;
+    }
+    
+    // Solape píxel a píxel con otra caja y su máscara (null = sólida)
+    public boolean overlapsMask(CollisionMask mask, int ox, int oy, int ow, int oh) {
+        return CollisionMask.overlaps(getCollisionMask(), getHitboxX(), getHitboxY(),
+                                      getHitboxWidth(), getHitboxHeight(), mask, ox, oy, ow, oh);
+    }
+    
+    public int getPrevHitboxX() { return prevX + hitboxLeft; }
+    public int getPrevHitboxY() { return prevY + hitboxTop; }
+    
+    // Caja que cubre todo el recorrido del paso (de la posición anterior a la actual)
+    public int getSweptX() { return Math.min(prevX, x) + hitboxLeft; }
+    public int getSweptY() { return Math.min(prevY, y) + hitboxTop; }
+    public int getSweptWidth() { return getHitboxWidth() + Math.abs(x - prevX); }
+    public int getSweptHeight() { return getHitboxHeight() + Math.abs(y - prevY); }
+    
+    public boolean intersects(int ox, int oy, int ow, int oh) {
+        return intersects(getHitboxX(), getHitboxY(), getHitboxWidth(), getHitboxHeight(), ox, oy, ow, oh);
+    }
+    
     public boolean collidesWith(GameObject other) {
-        Rectangle thisRect = new Rectangle(x, y, width, height);
-        Rectangle otherRect = new Rectangle(other.x, other.y, other.width, other.height);
-        return thisRect.intersects(otherRect);
+        return other.intersects(getHitboxX(), getHitboxY(), getHitboxWidth(), getHitboxHeight());
+    }
+    
+    // Caja de colisión como Rectangle, para código que no está en el bucle de colisiones
+    public Rectangle getBounds() {
+        return new Rectangle(getHitboxX(), getHitboxY(), getHitboxWidth(), getHitboxHeight());
+    }
+    
+    // Desplaza el objeto acumulando la parte fraccionaria
+    protected void moveBy(double dx, double dy) {
+        subX += dx;
+        subY += dy;
+        int ix = (int) subX;
+        int iy = (int) subY;
+        x += ix;
+        y += iy;
+        subX -= ix;
+        subY -= iy;
+    }
+    
+    public void savePreviousPosition() {
+        prevX = x;
+        prevY = y;
     }
     
     // Getters y setters
@@ -26,6 +187,8 @@ public abstract class GameObject {
     public int getY() { return y; }
     public int getWidth() { return width; }
     public int getHeight() { return height; }
+    public int getPrevX() { return prevX; }
+    public int getPrevY() { return prevY; }
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
 }
\ No newline at end of file
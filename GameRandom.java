@@ -0,0 +1,49 @@
+import java.util.SplittableRandom;
+
+// Generador aleatorio de una partida. Parte de una semilla y ofrece flujos
+// independientes con nombre (generación, IA, decoración), de modo que una
+// partida es reproducible a partir de su semilla y los efectos puramente
+// visuales no alteran la secuencia que decide la jugabilidad.
+// No es seguro entre hilos: cada partida usa el suyo.
+public class GameRandom {
+
+    private final long seed;
+    private final SplittableRandom spawn;
+    private final SplittableRandom ai;
+    private final SplittableRandom cosmetic;
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.spawn = stream("spawn");
+        this.ai = stream("ai");
+        this.cosmetic = stream("cosmetic");
+    }
+
+    // Semilla nueva para partidas normales
+    public static long newSeed() {
+        return mix(System.nanoTime() ^ Thread.currentThread().getId());
+    }
+
+    // Flujo derivado de la semilla y un nombre; mismo nombre, misma secuencia
+    public SplittableRandom stream(String name) {
+        return new SplittableRandom(mix(seed + name.hashCode() * 0x9E3779B97F4A7C15L));
+    }
+
+    // Aparición de obstáculos, enemigos y power-ups
+    public SplittableRandom spawn() { return spawn; }
+
+    // Decisiones de los enemigos (disparos)
+    public SplittableRandom ai() { return ai; }
+
+    // Nubes y decorado de fondo
+    public SplittableRandom cosmetic() { return cosmetic; }
+
+    public long getSeed() { return seed; }
+
+    // Mezclador de 64 bits (finalizador de SplitMix64)
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
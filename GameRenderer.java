@@ -0,0 +1,181 @@
+import java.awt.*;
+
+// Dibuja una partida a partir del estado del motor. No depende de la ventana
+// ni del sonido: lo usan SkyRunnerGame (pantalla) y los benchmarks, que
+// dibujan fotogramas completos en una BufferedImage.
+public class GameRenderer {
+
+    private static final int WIDTH = GameEngine.WIDTH;
+    private static final int HEIGHT = GameEngine.HEIGHT;
+
+    private final FrameProfiler profiler;
+    private final ParallaxBackground parallax = new ParallaxBackground();
+    private final HudLayer hud = new HudLayer();
+
+    // Estado del fotograma en curso
+    private GameEngine engine;
+    private SkyRunnerGame.GameState gameState;
+    private double alpha = 1.0;
+    // Posición de la cámara interpolada, con decimales
+    private double camera;
+
+    public GameRenderer(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    // alpha: fracción del paso fijo transcurrida, para interpolar posiciones
+    public void render(Graphics2D g2d, GameEngine engine, SkyRunnerGame.GameState gameState,
+                       double alpha, double scale) {
+        this.engine = engine;
+        this.gameState = gameState;
+        this.alpha = alpha;
+        this.camera = engine.getPrevCameraX() + (engine.getCameraX() - engine.getPrevCameraX()) * alpha;
+
+        long frameStart = System.nanoTime();
+        profiler.frameStarted(frameStart);
+        g2d.scale(scale, scale);
+        // Los sprites se rasterizan a la escala con que se dibujan
+        SpriteAtlas.useScale(scale);
+        
+        // Dibujar fondo según el mundo
+        drawBackground(g2d);
+        long t = System.nanoTime();
+        profiler.record(FrameProfiler.Phase.DRAW_BACKGROUND, t - frameStart);
+        
+        if (gameState == SkyRunnerGame.GameState.PLAYING || gameState == SkyRunnerGame.GameState.PAUSED) {
+            drawGame(g2d);
+            long now = System.nanoTime();
+            profiler.record(FrameProfiler.Phase.DRAW_GAME, now - t);
+            t = now;
+            drawUI(g2d);
+            now = System.nanoTime();
+            profiler.record(FrameProfiler.Phase.DRAW_UI, now - t);
+            if (profiler.isOverlayVisible()) {
+                profiler.drawOverlay(g2d, engine);
+            }
+        } else if (gameState == SkyRunnerGame.GameState.GAME_OVER) {
+            drawGameOver(g2d);
+        } else if (gameState == SkyRunnerGame.GameState.VICTORY) {
+            drawVictory(g2d);
+        }
+        profiler.record(FrameProfiler.Phase.RENDER, System.nanoTime() - frameStart);
+    }
+    
+    // Desplazamiento para dibujar entre la posición anterior y la actual
+    private double lerpOffset(int prev, int current) {
+        return (prev - current) * (1.0 - alpha);
+    }
+    
+    private void drawInterpolated(Graphics2D g2d, GameObject obj) {
+        double dx = lerpOffset(obj.getPrevX(), obj.getX());
+        double dy = lerpOffset(obj.getPrevY(), obj.getY());
+        g2d.translate(dx, dy);
+        obj.draw(g2d);
+        g2d.translate(-dx, -dy);
+    }
+    
+    private void drawBackground(Graphics g) {
+        Level currentLevel = engine.getLevelManager().getCurrentLevel();
+        g.setColor(currentLevel.getBackgroundColor());
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        
+        // Dibujar elementos emblemáticos del mundo detrás de las nubes, en
+        // tiras por capa de parallax
+        Graphics2D g2d = (Graphics2D) g;
+        parallax.draw(g2d, engine, camera);
+        
+        // Dibujar nubes
+        double cloudOffset = -camera * GameEngine.CLOUD_PARALLAX;
+        for (Cloud cloud : engine.getClouds()) {
+            double dx = lerpOffset(cloud.prevX, cloud.x) + cloudOffset;
+            double dy = lerpOffset(cloud.prevY, cloud.y);
+            g2d.translate(dx, dy);
+            cloud.draw(g2d);
+            g2d.translate(-dx, -dy);
+        }
+    }
+
+    private void drawGame(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        
+        // Objetos del mundo: una sola traslación por la cámara
+        g2d.translate(-camera, 0);
+        
+        // Dibujar obstáculos (no se mueven en el mundo)
+        for (Obstacle obstacle : engine.getObstacles()) {
+            obstacle.draw(g2d);
+        }
+        
+        // Dibujar enemigos
+        for (Enemy enemy : engine.getEnemies()) {
+            drawInterpolated(g2d, enemy);
+        }
+        
+        // Dibujar proyectiles
+        engine.getProjectiles().draw(g2d, alpha);
+        
+        // Dibujar power-ups
+        for (PowerUp powerUp : engine.getPowerUps()) {
+            drawInterpolated(g2d, powerUp);
+        }
+        
+        g2d.translate(camera, 0);
+        
+        // Dibujar jugador (coordenadas de pantalla)
+        drawInterpolated(g2d, engine.getPlayer());
+    }
+    
+    // Marcador y aviso de pausa
+    private void drawUI(Graphics2D g2d) {
+        hud.draw(g2d, engine, gameState == SkyRunnerGame.GameState.PAUSED);
+    }
+    
+    private void drawGameOver(Graphics g) {
+        g.setColor(new Color(0, 0, 0, 200));
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        
+        g.setColor(Color.RED);
+        g.setFont(new Font("Arial", Font.BOLD, 48));
+        String gameOverText = "GAME OVER";
+        int textWidth = g.getFontMetrics().stringWidth(gameOverText);
+        g.drawString(gameOverText, (WIDTH - textWidth) / 2, HEIGHT / 2 - 100);
+        
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Arial", Font.PLAIN, 24));
+        g.drawString("Puntuación Final: " + (engine.getScore() + engine.getLevelManager().getTotalScore()), 
+                    (WIDTH - 200) / 2, HEIGHT / 2 - 50);
+        g.drawString("Nivel Alcanzado: " + (engine.getLevelManager().getCurrentLevelIndex() + 1), 
+                    (WIDTH - 200) / 2, HEIGHT / 2 - 20);
+        
+        g.setFont(new Font("Arial", Font.PLAIN, 18));
+        g.drawString("Presiona ENTER para volver al menú", 
+                    (WIDTH - 300) / 2, HEIGHT / 2 + 50);
+        g.drawString("Presiona R para reiniciar", 
+                    (WIDTH - 200) / 2, HEIGHT / 2 + 80);
+    }
+    
+    private void drawVictory(Graphics g) {
+        g.setColor(new Color(0, 100, 0, 200));
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        
+        g.setColor(Color.YELLOW);
+        g.setFont(new Font("Arial", Font.BOLD, 48));
+        String victoryText = "¡VICTORIA!";
+        int textWidth = g.getFontMetrics().stringWidth(victoryText);
+        g.drawString(victoryText, (WIDTH - textWidth) / 2, HEIGHT / 2 - 100);
+        
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Arial", Font.PLAIN, 24));
+        g.drawString("¡Has completado todos los niveles!", 
+                    (WIDTH - 350) / 2, HEIGHT / 2 - 50);
+        g.drawString("Puntuación Total: " + engine.getLevelManager().getFinalScore(), 
+                    (WIDTH - 200) / 2, HEIGHT / 2 - 20);
+        
+        g.setFont(new Font("Arial", Font.PLAIN, 18));
+        g.drawString(engine.getLevelManager().getFinalStats(), 
+                    (WIDTH - 400) / 2, HEIGHT / 2 + 30);
+        
+        g.drawString("Presiona ENTER para volver al menú", 
+                    (WIDTH - 300) / 2, HEIGHT / 2 + 100);
+    }
+}
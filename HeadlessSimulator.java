@@ -0,0 +1,66 @@
+// Ejecuta partidas completas con GameEngine sin ventana ni límite de FPS.
+// Sirve para ajustar parámetros y detectar regresiones simulando miles de partidas.
+//
+// Uso: java -Djava.awt.headless=true HeadlessSimulator [partidas] [DIFICULTAD] [MUNDO] [semilla] [pasos/s]
+public class HeadlessSimulator {
+
+    // Límite de seguridad por partida (30 minutos de juego)
+    static final int MAX_SECONDS = 60 * 30;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        GameEngine.Difficulty difficulty = args.length > 1
+            ? GameEngine.Difficulty.valueOf(args[1]) : GameEngine.Difficulty.NORMAL;
+        GameEngine.World world = args.length > 2
+            ? GameEngine.World.valueOf(args[2]) : GameEngine.World.CLOUD_KINGDOM;
+        // Cada partida usa semilla base + índice, así el lote entero es reproducible
+        long baseSeed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+        // Frecuencia de simulación: la partida es la misma, solo cambia el coste por segundo de juego
+        int ticksPerSecond = args.length > 4 ? Integer.parseInt(args[4]) : TickRate.DEFAULT;
+        long maxTicks = (long) MAX_SECONDS * ticksPerSecond;
+
+        long totalTicks = 0;
+        long totalScore = 0;
+        int completed = 0;
+        EntityPools pools = new EntityPools();
+        GameEventBus events = new GameEventBus(1);
+        long start = System.nanoTime();
+
+        for (int run = 0; run < runs; run++) {
+            GameEngine engine = new GameEngine(difficulty, world, baseSeed + run,
+                                               SpawnTuning.defaults(difficulty), ticksPerSecond);
+            engine.setUpdatePool(null);
+            while (!engine.isFinished() && engine.getTick() < maxTicks) {
+                engine.step(scriptedInputs(engine));
+            }
+            totalTicks += engine.getTick();
+            totalScore += engine.getScore();
+            if (engine.isGameComplete()) completed++;
+            pools.addStats(engine.getPools());
+            events.addTotals(engine.getEvents());
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Partidas: %d (%s, %s, %d pasos/s)%n", runs, difficulty, world, ticksPerSecond);
+        System.out.printf("Completadas: %d (%.1f%%)%n", completed, 100.0 * completed / runs);
+        System.out.printf("Puntuación media: %.1f%n", totalScore / (double) runs);
+        System.out.printf("Pasos simulados: %d en %.2f s (%.0f pasos/s, %.0f partidas/min)%n",
+            totalTicks, seconds, totalTicks / seconds, runs / seconds * 60);
+        // Reutilización de objetos sumada de todas las partidas; el máximo en
+        // uso es el de la partida que más necesitó
+        for (ObjectPool<?> pool : pools.all()) {
+            System.out.println("Reserva de " + pool);
+        }
+        System.out.println("Sucesos: " + events);
+    }
+
+    // Piloto sencillo: dispara siempre y sube y baja cada segundo
+    static int scriptedInputs(GameEngine engine) {
+        int inputs = GameEngine.INPUT_FIRE;
+        long second = engine.getTick() / engine.getTicksPerSecond();
+        inputs |= second % 2 == 0 ? GameEngine.INPUT_UP : GameEngine.INPUT_DOWN;
+        return inputs;
+    }
+}
@@ -0,0 +1,187 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.text.DecimalFormatSymbols;
+
+// Marcador de la partida (nivel y progreso, puntuación, vidas y turbo) y aviso
+// de pausa. Dibuja lo mismo que el antiguo drawUI, pero sin crear objetos por
+// fotograma: las fuentes y los colores son constantes, las etiquetas fijas se
+// preparan una vez (la del nivel, al cambiar de nivel) y los números se
+// escriben cifra a cifra detrás de su etiqueta en un char[] reutilizado, que
+// se dibuja con un solo drawChars por línea.
+//
+// Se probó a guardar el marcador en una imagen entre fotogramas, pero sin
+// aceleración copiar una imagen con transparencia cuesta unos 3 ns por píxel y
+// el marcador salía más caro (unos 32 µs) que estas tres líneas de texto y
+// unos fillRect (8-10 µs). La pausa sí va en una imagen de pantalla completa,
+// una por escala: el velo translúcido se mezcla igual, pero fillRect reservaba
+// unos 6 KB por fotograma y los textos se medían cada vez.
+//
+// Solo se usa desde el hilo que dibuja.
+public class HudLayer {
+
+    private static final int WIDTH = GameEngine.WIDTH;
+    private static final int HEIGHT = GameEngine.HEIGHT;
+    private static final int TEXT_X = 10;
+    private static final int LEVEL_Y = 25;
+    private static final int SCORE_Y = 50;
+    private static final int LIVES_Y = 75;
+    // Barras de vidas y turbo
+    private static final int BAR_X = 10;
+    private static final int BAR_WIDTH = 200;
+    private static final int BAR_Y = 85;
+    private static final int BAR_HEIGHT = 10;
+    private static final int SEGMENTS = 3;
+    private static final int SEGMENT_GAP = 4;
+    private static final int SEGMENT_WIDTH = (BAR_WIDTH - (SEGMENTS - 1) * SEGMENT_GAP) / SEGMENTS;
+    private static final int TURBO_Y = 100;
+    private static final int TURBO_HEIGHT = 5;
+    private static final double TURBO_SECONDS = 5.0;
+
+    private static final Font TEXT_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font TURBO_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font PAUSE_TITLE_FONT = new Font("Arial", Font.BOLD, 48);
+    private static final Font PAUSE_TEXT_FONT = new Font("Arial", Font.PLAIN, 24);
+    private static final Color LOST_SEGMENT = new Color(120, 0, 0);
+    private static final Color TURBO_BAR = new Color(255, 165, 0);
+    private static final Color PAUSE_SHADE = new Color(0, 0, 0, 150);
+
+    private static final char[] SCORE = "Puntuación: ".toCharArray();
+    private static final char[] LIVES = "Vidas: ".toCharArray();
+    private static final char[] TURBO = "¡TURBO!".toCharArray();
+    private static final String PAUSED = "PAUSADO";
+    private static final String CONTINUE = "Presiona ESC para continuar";
+    private static final String TO_MENU = "Presiona M para volver al menú";
+    // Separador decimal del progreso, el mismo que ponía String.format("%.1f")
+    private static final char DECIMAL = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    // Línea que se está escribiendo y su longitud
+    private char[] line = new char[64];
+    private int length;
+    // "Nivel n: nombre (" del nivel actual
+    private Level level;
+    private char[] levelPrefix;
+    // Velo y textos de la pausa a la escala pauseScale
+    private BufferedImage pauseOverlay;
+    private double pauseScale;
+
+    public void draw(Graphics2D g2d, GameEngine engine, boolean paused) {
+        LevelManager levels = engine.getLevelManager();
+        Level currentLevel = levels.getCurrentLevel();
+        if (currentLevel != level) {
+            levelPrefix = ("Nivel " + (levels.getCurrentLevelIndex() + 1) + ": " + currentLevel.getName() + " (").toCharArray();
+            level = currentLevel;
+        }
+        int lives = levels.getLives();
+
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(TEXT_FONT);
+
+        // Información del nivel: "Nivel n: nombre (p.p%)"
+        int tenths = (int) Math.round(currentLevel.getCompletionPercentage() * 10);
+        begin(levelPrefix);
+        appendNumber(tenths / 10);
+        append(DECIMAL);
+        append((char) ('0' + tenths % 10));
+        append('%');
+        append(')');
+        g2d.drawChars(line, 0, length, TEXT_X, LEVEL_Y);
+
+        // Puntuación
+        begin(SCORE);
+        appendNumber(engine.getScore());
+        g2d.drawChars(line, 0, length, TEXT_X, SCORE_Y);
+
+        // Vidas
+        begin(LIVES);
+        appendNumber(lives);
+        g2d.drawChars(line, 0, length, TEXT_X, LIVES_Y);
+
+        // Barra de vidas por segmentos
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.fillRect(BAR_X, BAR_Y, BAR_WIDTH, BAR_HEIGHT);
+        int filled = Math.max(0, Math.min(SEGMENTS, lives));
+        for (int i = 0; i < SEGMENTS; i++) {
+            g2d.setColor(i < filled ? Color.GREEN : LOST_SEGMENT);
+            g2d.fillRect(BAR_X + i * (SEGMENT_WIDTH + SEGMENT_GAP), BAR_Y, SEGMENT_WIDTH, BAR_HEIGHT);
+        }
+        g2d.setColor(Color.WHITE);
+        g2d.drawRect(BAR_X, BAR_Y, BAR_WIDTH, BAR_HEIGHT);
+        for (int i = 1; i < SEGMENTS; i++) {
+            int dx = BAR_X + i * (SEGMENT_WIDTH + SEGMENT_GAP) - SEGMENT_GAP / 2;
+            g2d.drawLine(dx, BAR_Y, dx, BAR_Y + BAR_HEIGHT);
+        }
+
+        // Barra de turbo
+        double turbo = engine.getPlayer().getTurboDuration();
+        if (turbo > 0) {
+            g2d.setColor(TURBO_BAR);
+            g2d.fillRect(BAR_X, TURBO_Y, (int) (BAR_WIDTH * turbo / TURBO_SECONDS), TURBO_HEIGHT);
+            g2d.setColor(Color.WHITE);
+            g2d.drawRect(BAR_X, TURBO_Y, BAR_WIDTH, TURBO_HEIGHT);
+        }
+
+        // Indicador de turbo activo
+        if (engine.getPlayer().isTurboActive()) {
+            g2d.setColor(Color.YELLOW);
+            g2d.setFont(TURBO_FONT);
+            g2d.drawChars(TURBO, 0, TURBO.length, WIDTH - 100, 30);
+        }
+
+        // Pausa
+        if (paused) {
+            double scale = SpriteAtlas.current().getScale();
+            if (pauseOverlay == null || scale != pauseScale) createPauseOverlay(scale);
+            g2d.drawImage(pauseOverlay, 0, 0, WIDTH, HEIGHT, null);
+        }
+    }
+
+    private void createPauseOverlay(double scale) {
+        pauseScale = scale;
+        pauseOverlay = SpriteAtlas.createImage((int) Math.ceil(WIDTH * scale), (int) Math.ceil(HEIGHT * scale));
+        Graphics2D g = pauseOverlay.createGraphics();
+        g.scale(scale, scale);
+        g.setColor(PAUSE_SHADE);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setColor(Color.WHITE);
+        drawCentered(g, PAUSE_TITLE_FONT, PAUSED, HEIGHT / 2);
+        drawCentered(g, PAUSE_TEXT_FONT, CONTINUE, HEIGHT / 2 + 50);
+        drawCentered(g, PAUSE_TEXT_FONT, TO_MENU, HEIGHT / 2 + 85);
+        g.dispose();
+    }
+
+    private static void drawCentered(Graphics2D g2d, Font font, String text, int y) {
+        g2d.setFont(font);
+        int textWidth = g2d.getFontMetrics().stringWidth(text);
+        g2d.drawString(text, (WIDTH - textWidth) / 2, y);
+    }
+
+    private void begin(char[] label) {
+        if (line.length < label.length + 16) line = new char[label.length + 16];
+        System.arraycopy(label, 0, line, 0, label.length);
+        length = label.length;
+    }
+
+    private void append(char c) {
+        line[length++] = c;
+    }
+
+    // Cifras de value sin pasar por String
+    private void appendNumber(int value) {
+        long v = value;
+        if (v < 0) {
+            append('-');
+            v = -v;
+        }
+        int start = length;
+        do {
+            append((char) ('0' + v % 10));
+            v /= 10;
+        } while (v > 0);
+        // Se han escrito de las unidades hacia arriba: darles la vuelta
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            char c = line[i];
+            line[i] = line[j];
+            line[j] = c;
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import java.awt.Color;
+import java.util.SplittableRandom;
 
 public class Level {
     
@@ -15,14 +16,28 @@ public class Level {
     private String name;
     private String world;
     private String difficulty;
+    private SplittableRandom random;
     private int levelNumber;
     private int length; // Longitud del nivel en píxeles
     private int targetScore; // Puntuación objetivo
+    // Velocidad del mundo en pantalla y avance del recorrido, en píxeles por segundo,
+    // sin turbo y con turbo. Reproducen lo que se veía a 60 FPS cuando se movía por
+    // fotograma: x -= 1.4/1.85/2.35 (x1.5 con turbo) truncado a entero movía 2/2/3
+    // píxeles (3/3/4 con turbo) y el recorrido avanzaba (int)velocidad, 1/1/2 (2/2/3)
     private double scrollSpeed;
+    private double progressSpeed;
+    private double turboScrollSpeed;
+    private double turboProgressSpeed;
+    // Puntos por segundo por distancia, sin turbo y con turbo. El juego sumaba
+    // (int)(velocidad * 0.5) por fotograma, que con 1.4/1.85/2.35 px por
+    // fotograma daba 0/0/1 punto (1 con turbo en todas), es decir 0/0/60 y 60
+    private int distanceScoreRate;
+    private int turboDistanceScoreRate;
     private Color backgroundColor;
     private Color cloudColor;
     
-    // Configuración de obstáculos
+    // Configuración de obstáculos (las tasas de aparición son probabilidades por
+    // paso de 60 Hz; GameEngine las convierte a la frecuencia de simulación)
     private double obstacleSpawnRate;
     private double[] obstacleTypeWeights; // Probabilidad de cada tipo
     
@@ -43,8 +58,9 @@ public class Level {
     private int obstaclesPassed;
     
     public Level(String name, String world, String difficulty, 
-                 int levelNumber, int length, int targetScore) {
+                 int levelNumber, int length, int targetScore, SplittableRandom random) {
         this.name = name;
+        this.random = random;
         this.world = world;
         this.difficulty = difficulty;
         this.levelNumber = levelNumber;
@@ -61,7 +77,12 @@ public class Level {
     private void configureLevel() {
         // Configurar velocidad de desplazamiento según dificultad
         if (difficulty.equals("EASY")) {
-            scrollSpeed = 1.4;
+            scrollSpeed = 120.0;
+            progressSpeed = 60.0;
+            turboScrollSpeed = 180.0;
+            turboProgressSpeed = 120.0;
+            distanceScoreRate = 0;
+            turboDistanceScoreRate = 60;
             obstacleSpawnRate = 0.008;
             enemySpawnRate = 0.003;
             powerUpSpawnRate = 0.004;
@@ -69,7 +90,12 @@ public class Level {
             scoreBoostSpawnRate = 0.002;
             maxEnemies = 8;
         } else if (difficulty.equals("NORMAL")) {
-            scrollSpeed = 1.85;
+            scrollSpeed = 120.0;
+            progressSpeed = 60.0;
+            turboScrollSpeed = 180.0;
+            turboProgressSpeed = 120.0;
+            distanceScoreRate = 0;
+            turboDistanceScoreRate = 60;
             obstacleSpawnRate = 0.012;
             enemySpawnRate = 0.005;
             powerUpSpawnRate = 0.003;
@@ -77,7 +103,12 @@ public class Level {
             scoreBoostSpawnRate = 0.0015;
             maxEnemies = 12;
         } else if (difficulty.equals("HARD")) {
-            scrollSpeed = 2.35;
+            scrollSpeed = 180.0;
+            progressSpeed = 120.0;
+            turboScrollSpeed = 240.0;
+            turboProgressSpeed = 180.0;
+            distanceScoreRate = 60;
+            turboDistanceScoreRate = 60;
             obstacleSpawnRate = 0.018;
             enemySpawnRate = 0.012;
             powerUpSpawnRate = 0.006;
@@ -137,7 +168,7 @@ public class Level {
     
     // Métodos para obtener configuraciones
     public ObstacleType getRandomObstacleType() {
-        double random = Math.random();
+        double random = this.random.nextDouble();
         double cumulative = 0.0;
         
         for (int i = 0; i < obstacleTypeWeights.length; i++) {
@@ -151,7 +182,7 @@ public class Level {
     }
     
     public EnemyType getRandomEnemyType() {
-        double random = Math.random();
+        double random = this.random.nextDouble();
         double cumulative = 0.0;
         
         for (int i = 0; i < enemyTypeWeights.length; i++) {
@@ -188,6 +219,11 @@ public class Level {
     public int getLength() { return length; }
     public int getTargetScore() { return targetScore; }
     public double getScrollSpeed() { return scrollSpeed; }
+    public double getProgressSpeed() { return progressSpeed; }
+    public double getTurboScrollSpeed() { return turboScrollSpeed; }
+    public double getTurboProgressSpeed() { return turboProgressSpeed; }
+    public int getDistanceScoreRate() { return distanceScoreRate; }
+    public int getTurboDistanceScoreRate() { return turboDistanceScoreRate; }
     public Color getBackgroundColor() { return backgroundColor; }
     public Color getCloudColor() { return cloudColor; }
     public double getObstacleSpawnRate() { return obstacleSpawnRate; }
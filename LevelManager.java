@@ -5,16 +5,23 @@ public class LevelManager {
     private List<Level> levels;
     private int currentLevelIndex;
     private Level currentLevel;
-    private Random random;
+    private final GameRandom random;
     
     // Estadísticas globales
     private int totalScore;
     private int totalEnemiesDefeated;
     private int totalObstaclesPassed;
     private int lives;
+    // Los objetos generados salen de las reservas de la partida
+    private final EntityPools pools;
     
-    public LevelManager(String difficulty, String world) {
-        this.random = new Random();
+    public LevelManager(String difficulty, String world, GameRandom random) {
+        this(difficulty, world, random, new EntityPools());
+    }
+    
+    public LevelManager(String difficulty, String world, GameRandom random, EntityPools pools) {
+        this.random = random;
+        this.pools = pools;
         this.levels = new ArrayList<>();
         this.currentLevelIndex = 0;
         this.totalScore = 0;
@@ -33,7 +40,7 @@ public class LevelManager {
         else if (difficulty.equals("HARD")) { baseLength = 6000; baseTargetScore = 1500; }
         // Un solo nivel por mundo
         String levelName = getLevelName(world, 0);
-        Level level = new Level(levelName, world, difficulty, 1, baseLength, baseTargetScore);
+        Level level = new Level(levelName, world, difficulty, 1, baseLength, baseTargetScore, random.spawn());
         levels.add(level);
     }
     
@@ -100,31 +107,31 @@ public class LevelManager {
         switch (levelType) {
             case ROCK_TOWER:
                 type = Obstacle.Type.ROCK_TOWER;
-                return new Obstacle(x, y, type);
+                return pools.obstacle(x, y, type);
             case ELECTRIC_STORM:
                 type = Obstacle.Type.ELECTRIC_STORM;
-                return new Obstacle(x, y, type);
+                return pools.obstacle(x, y, type);
             case TURBINE:
                 type = Obstacle.Type.TURBINE;
-                return new Obstacle(x, y, type);
+                return pools.obstacle(x, y, type);
             case CLOUD_KINGDOM_TOWER:
                 type = Obstacle.Type.CLOUD_KINGDOM_TOWER;
-                return new Obstacle(x, y, type);
+                return pools.obstacle(x, y, type);
             case CRYSTAL_SPIKE:
                 type = Obstacle.Type.CRYSTAL_SPIKE;
-                return new Obstacle(x, y, type);
+                return pools.obstacle(x, y, type);
             case FLOATING_PLATFORM:
                 type = Obstacle.Type.FLOATING_PLATFORM;
-                return new Obstacle(x, y, type);
+                return pools.obstacle(x, y, type);
             case CITY_BUILDING:
                 type = Obstacle.Type.CITY_BUILDING;
                 // Generación especial: edificios desde arriba o abajo con alturas distintas
                 int margin = 80;
-                boolean fromBottom = Math.random() < 0.5;
+                boolean fromBottom = random.spawn().nextDouble() < 0.5;
                 int width = 70;
                 int maxH = SkyRunnerGame.HEIGHT - margin;
                 int minH = 120;
-                int height = Math.max(minH, Math.min(maxH - 60, minH + (int)(Math.random() * (maxH - minH))));
+                int height = Math.max(minH, Math.min(maxH - 60, minH + (int)(random.spawn().nextDouble() * (maxH - minH))));
                 int yy = fromBottom ? SkyRunnerGame.HEIGHT - height : 0;
                 // Asegurar margen según origen
                 if (!fromBottom && height > SkyRunnerGame.HEIGHT - margin) {
@@ -134,9 +141,9 @@ public class LevelManager {
                     yy = margin;
                     height = SkyRunnerGame.HEIGHT - yy;
                 }
-                return new Obstacle(x, width, height, yy, fromBottom, type);
+                return pools.obstacle(x, width, height, yy, fromBottom, type);
             default:
-                return new Obstacle(x, y, Obstacle.Type.ROCK_TOWER);
+                return pools.obstacle(x, y, Obstacle.Type.ROCK_TOWER);
         }
     }
     
@@ -164,24 +171,24 @@ public class LevelManager {
                 break;
         }
         
-        return new Enemy(x, y, speed, health);
+        return pools.enemy(x, y, speed, health);
     }
     
     public PowerUp generatePowerUp(int x, int y) {
         // Distribución por dificultad
         if (currentLevel.getDifficulty().equals("HARD")) {
-            double r = Math.random();
-            if (r < 0.30) return new PowerUp(x, y, PowerUp.Type.SCORE_BOOST); // 30%
-            if (r < 0.55) return new PowerUp(x, y, PowerUp.Type.TURBO);       // +25% = 55%
-            if (r < 0.80) return new PowerUp(x, y, PowerUp.Type.SHIELD);      // +25% = 80%
-            return new PowerUp(x, y, PowerUp.Type.HEALTH);                    // 20%
+            double r = random.spawn().nextDouble();
+            if (r < 0.30) return pools.powerUp(x, y, PowerUp.Type.SCORE_BOOST); // 30%
+            if (r < 0.55) return pools.powerUp(x, y, PowerUp.Type.TURBO);       // +25% = 55%
+            if (r < 0.80) return pools.powerUp(x, y, PowerUp.Type.SHIELD);      // +25% = 80%
+            return pools.powerUp(x, y, PowerUp.Type.HEALTH);                    // 20%
         }
         // Otras dificultades: distribución previa
-        double r = Math.random();
-        if (r < 0.50) return new PowerUp(x, y, PowerUp.Type.SCORE_BOOST);
-        if (r < 0.75) return new PowerUp(x, y, PowerUp.Type.TURBO);
-        if (r < 0.85) return new PowerUp(x, y, PowerUp.Type.SHIELD);
-        if (r < 0.90) return new PowerUp(x, y, PowerUp.Type.HEALTH);
+        double r = random.spawn().nextDouble();
+        if (r < 0.50) return pools.powerUp(x, y, PowerUp.Type.SCORE_BOOST);
+        if (r < 0.75) return pools.powerUp(x, y, PowerUp.Type.TURBO);
+        if (r < 0.85) return pools.powerUp(x, y, PowerUp.Type.SHIELD);
+        if (r < 0.90) return pools.powerUp(x, y, PowerUp.Type.HEALTH);
         return null;
     }
     
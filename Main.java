@@ -1,7 +1,14 @@
 import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
 
 public class Main {
-    public static void main(String[] args) {
+    // Con "--replay archivo.skyr" reproduce una partida grabada
+    public static void main(String[] args) throws IOException {
+        Replay replay = null;
+        if (args.length >= 2 && args[0].equals("--replay")) {
+            replay = Replay.load(new File(args[1]));
+        }
 
         JFrame frame = new JFrame("Sky Runner: Carrera en las Nubes");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -16,5 +23,8 @@ public class Main {
         
         frame.setVisible(true);
         game.requestFocusInWindow();
+        if (replay != null) {
+            game.playReplay(replay);
+        }
     }
 }
\ No newline at end of file
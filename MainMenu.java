@@ -1,6 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.SplittableRandom;
 
 public class MainMenu extends JFrame implements ActionListener {
     
@@ -10,9 +11,13 @@ public class MainMenu extends JFrame implements ActionListener {
     private float volume = 0.7f;
     private boolean ambientPreferred = true;
     private double renderScale = 1.0;
+    // null: la que diga -Dskyrunner.resolution (automática por defecto)
+    private DynamicResolution.Mode resolutionMode = null;
     
     private SoundManager soundManager;
     private JButton startButton;
+    // Nubes decorativas del fondo, con las mismas imágenes que las de la partida
+    private final Cloud[] menuClouds = new Cloud[5];
     
     public MainMenu() {
         super("Sky Runner - Menú Principal");
@@ -22,6 +27,10 @@ public class MainMenu extends JFrame implements ActionListener {
         setLocationRelativeTo(null);
         setResizable(false);
         
+        SplittableRandom shapes = new SplittableRandom(2024);
+        for (int i = 0; i < menuClouds.length; i++) {
+            menuClouds[i] = new Cloud(0, 0, i % (Cloud.MAX_SIZE + 1), shapes);
+        }
         initComponents(); 
         
         // Música de fondo del menú
@@ -132,9 +141,25 @@ public class MainMenu extends JFrame implements ActionListener {
         });
         optionsPanel.add(sizeCombo, gbc);
 
-        // Volumen
+        // Resolución a la que se dibuja antes de escalar a la ventana
         gbc.gridx = 0;
         gbc.gridy = 4;
+        optionsPanel.add(createLabel("Resolución:"), gbc);
+        gbc.gridx = 1;
+        JComboBox<String> resolutionCombo = new JComboBox<>(new String[]{"Automática", "Igual que la ventana", "800x600"});
+        resolutionCombo.addActionListener(e -> {
+            int idx = resolutionCombo.getSelectedIndex();
+            resolutionMode = switch (idx) {
+                case 1 -> DynamicResolution.Mode.WINDOW;
+                case 2 -> DynamicResolution.Mode.NATIVE;
+                default -> DynamicResolution.Mode.AUTO;
+            };
+        });
+        optionsPanel.add(resolutionCombo, gbc);
+
+        // Volumen
+        gbc.gridx = 0;
+        gbc.gridy = 5;
         optionsPanel.add(createLabel("Volumen:"), gbc);
 
         gbc.gridx = 1;
@@ -152,7 +177,7 @@ public class MainMenu extends JFrame implements ActionListener {
 
         // Botón rojo "Empezar" debajo del volumen
         gbc.gridx = 0;
-        gbc.gridy = 5;
+        gbc.gridy = 6;
         gbc.gridwidth = 2;
         JButton empezarButton = createButton("Empezar", new Color(220, 20, 60));
         empezarButton.addActionListener(e -> startGame());
@@ -239,16 +264,11 @@ public class MainMenu extends JFrame implements ActionListener {
         g2d.fillRect(0, 0, getWidth(), getHeight());
         
         // Dibujar nubes decorativas
-        g2d.setColor(new Color(255, 255, 255, 100));
-        for (int i = 0; i < 5; i++) {
-            int x = (i * 200 + 50) % getWidth();
-            int y = 50 + i * 80;
-            int size = 40 + i * 10;
-            
-            // Dibujar nube simple
-            g2d.fillOval(x, y, size, size/2);
-            g2d.fillOval(x - size/4, y + size/4, (int)(size * 1.5f), size/2);
-            g2d.fillOval(x + size/4, y + size/4, size, size/2);
+        SpriteAtlas.useScale(1.0);
+        for (int i = 0; i < menuClouds.length; i++) {
+            menuClouds[i].x = (i * 200 + 50) % getWidth();
+            menuClouds[i].y = 50 + i * 80;
+            menuClouds[i].draw(g2d);
         }
         
         // Dibujar aviones decorativos
@@ -283,6 +303,7 @@ public class MainMenu extends JFrame implements ActionListener {
         JFrame gameFrame = new JFrame("Sky Runner: Carrera en las Nubes");
         gameFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         game.setRenderScale(renderScale);
+        if (resolutionMode != null) game.setResolutionMode(resolutionMode);
         gameFrame.add(game);
         gameFrame.pack();
         gameFrame.setLocationRelativeTo(null);
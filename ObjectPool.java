@@ -0,0 +1,85 @@
+import java.util.List;
+import java.util.function.Supplier;
+
+// Reserva acotada de objetos reutilizables de un tipo. acquire devuelve uno
+// liberado antes o, si no queda ninguno, uno nuevo del factory; quien lo pide
+// lo reinicia (los objetos del juego tienen un método reset con los mismos
+// parámetros que su constructor). release lo guarda mientras quepa; por
+// encima de la capacidad se deja al recolector.
+//
+// Un objeto solo se libera una vez y cuando ya no está en ninguna lista.
+//
+// Estadísticas: tasa de acierto (peticiones servidas sin crear) y máximo de
+// objetos en uso a la vez, para ajustar la capacidad.
+public class ObjectPool<T> {
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final Object[] free;
+    private int freeCount;
+
+    private long acquired;
+    private long hits;
+    private long dropped;
+    private int inUse;
+    private int highWater;
+
+    public ObjectPool(String name, int capacity, Supplier<T> factory) {
+        this.name = name;
+        this.factory = factory;
+        this.free = new Object[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        acquired++;
+        if (++inUse > highWater) highWater = inUse;
+        if (freeCount > 0) {
+            hits++;
+            T object = (T) free[--freeCount];
+            free[freeCount] = null;
+            return object;
+        }
+        return factory.get();
+    }
+
+    public void release(T object) {
+        if (inUse > 0) inUse--;
+        if (freeCount < free.length) {
+            free[freeCount++] = object;
+        } else {
+            dropped++;
+        }
+    }
+
+    // Libera los elementos [from, to) de la lista (no los quita de ella)
+    public void releaseRange(List<? extends T> list, int from, int to) {
+        for (int i = from; i < to; i++) release(list.get(i));
+    }
+
+    // Suma las estadísticas de otra reserva (p. ej. de varias partidas)
+    public void addStats(ObjectPool<?> other) {
+        acquired += other.acquired;
+        hits += other.hits;
+        dropped += other.dropped;
+        highWater = Math.max(highWater, other.highWater);
+    }
+
+    public double getHitRate() {
+        return acquired == 0 ? 0.0 : hits / (double) acquired;
+    }
+
+    public String getName() { return name; }
+    public int getCapacity() { return free.length; }
+    public int getFreeCount() { return freeCount; }
+    public int getInUse() { return inUse; }
+    public int getHighWater() { return highWater; }
+    public long getAcquired() { return acquired; }
+    public long getDropped() { return dropped; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d pedidos, %.1f%% reutilizados, máximo en uso %d/%d, descartados %d",
+            name, acquired, getHitRate() * 100, highWater, free.length, dropped);
+    }
+}
@@ -1,4 +1,5 @@
 import java.awt.*;
+import java.util.HashMap;
 
 public class Obstacle extends GameObject {
     
@@ -6,15 +7,56 @@ public class Obstacle extends GameObject {
         ROCK_TOWER, ELECTRIC_STORM, TURBINE, CLOUD_KINGDOM_TOWER, CRYSTAL_SPIKE, FLOATING_PLATFORM, CITY_BUILDING
     }
     
+    private static final double ANIMATION_FRAME_TIME = 5.0 / 60.0;
+    public static final int LIGHTNING_COLUMN_WIDTH = 24;
+    private static final Color BUILDING_BODY = new Color(90, 90, 120);
+    private static final Color BUILDING_BORDER = new Color(60, 60, 80);
+    // Máscaras de colisión de las nubes de tormenta (el rayo tiene su propia
+    // columna); el resto de obstáculos llena su caja
+    private static final CollisionMask STORM_MASK = buildMask(Type.ELECTRIC_STORM);
+    private static final CollisionMask SPIKE_MASK = buildMask(Type.CRYSTAL_SPIKE);
+
+    // Sprites por tipo con el tamaño con que se generan (SpriteAtlas); se
+    // crean la primera vez que se dibuja cada tipo. Un obstáculo de otro tamaño
+    // se dibuja con primitivas.
+    private static final Type[] TYPES = Type.values();
+    private static final SpriteAtlas.Sheet[] SHEETS = new SpriteAtlas.Sheet[TYPES.length];
+    private static final int[] SHEET_WIDTH = new int[TYPES.length];
+    private static final int[] SHEET_HEIGHT = new int[TYPES.length];
+    // Rayo de las tormentas: una tira de toda la altura de la pantalla que se
+    // recorta hasta el suelo
+    private static final SpriteAtlas.Sheet[] LIGHTNING = new SpriteAtlas.Sheet[TYPES.length];
+    // Edificios: la altura cambia con cada uno, así que el sprite (por ancho)
+    // lleva el indicador y todas las filas de ventanas posibles, y se recorta
+    // hasta las que caben; cuerpo y borde son dos rectángulos
+    private static final HashMap<Integer, SpriteAtlas.Sheet> BUILDING_WINDOWS = new HashMap<>();
+    private static final int BUILDING_TOP = 12;
+    private static final int WINDOW_PAD_Y = 8;
+    private static final int WINDOW_STEP_Y = 20;
+    
     private Type type;
+    // Ventanas del ancho de este edificio (se busca al dibujarlo por primera vez)
+    private SpriteAtlas.Sheet windows;
+    private int windowsWidth;
     private int animationFrame = 0;
-    private int animationDelay = 0;
+    private double animationTime = 0;
     private boolean harmful = true;
     private boolean fromBottom = true;
     
     public Obstacle(int x, int y, Type type) {
         super(x, y, 60, 80);
-        this.type = type;
+        reset(x, y, type);
+    }
+
+    public Obstacle(int x, int width, int height, int y, boolean fromBottom, Type type) {
+        super(x, y, width, height);
+        reset(x, width, height, y, fromBottom, type);
+    }
+    
+    // Dejan el obstáculo como recién creado (EntityPools lo reutiliza)
+    public void reset(int x, int y, Type type) {
+        resetObject(x, y, 60, 80);
+        resetState(type, true);
         
         switch (type) {
             case ROCK_TOWER:
@@ -28,39 +70,144 @@ public class Obstacle extends GameObject {
             case TURBINE:
                 width = 40;
                 height = 60;
-                harmful = true;
                 break;
             case CITY_BUILDING:
                 width = 70;
                 height = 180;
-                harmful = true;
                 break;
         }
     }
-
-    public Obstacle(int x, int width, int height, int y, boolean fromBottom, Type type) {
-        super(x, y, width, height);
+    
+    public void reset(int x, int width, int height, int y, boolean fromBottom, Type type) {
+        resetObject(x, y, width, height);
+        resetState(type, fromBottom);
+    }
+    
+    private void resetState(Type type, boolean fromBottom) {
         this.type = type;
         this.fromBottom = fromBottom;
         this.harmful = true;
+        this.animationFrame = 0;
+        this.animationTime = 0;
+    }
+    
+    private static CollisionMask buildMask(Type type) {
+        // Fotograma impar: sin rayo ni destello
+        Obstacle prototype = new Obstacle(0, 0, type);
+        prototype.animationFrame = 1;
+        return CollisionMask.fromDrawing(prototype.width, prototype.height, prototype::drawVector);
     }
     
     @Override
-    public void update() {
-        animationDelay++;
-        if (animationDelay >= 5) {
-            animationFrame = (animationFrame + 1) % 8;
-            animationDelay = 0;
+    public CollisionMask getCollisionMask() {
+        CollisionMask mask;
+        switch (type) {
+            case ELECTRIC_STORM: mask = STORM_MASK; break;
+            case CRYSTAL_SPIKE: mask = SPIKE_MASK; break;
+            default: return null;
         }
+        // Solo vale para el tamaño con que se generó
+        return mask.getWidth() == width && mask.getHeight() == height ? mask : null;
     }
     
-    public void update(int scrollSpeed) {
-        x -= scrollSpeed;
-        update();
+    @Override
+    public void update(double dt) {
+        animationTime += dt;
+        while (animationTime >= ANIMATION_FRAME_TIME) {
+            animationFrame = (animationFrame + 1) % 8;
+            animationTime -= ANIMATION_FRAME_TIME;
+        }
     }
     
     @Override
     public void draw(Graphics2D g2d) {
+        if (type == Type.CITY_BUILDING) {
+            drawBuildingSprites(g2d);
+            return;
+        }
+        int t = type.ordinal();
+        if (SHEETS[t] == null) createSheets(type);
+        if (width != SHEET_WIDTH[t] || height != SHEET_HEIGHT[t]) {
+            drawVector(g2d);
+            return;
+        }
+        switch (type) {
+            case ELECTRIC_STORM:
+            case CRYSTAL_SPIKE:
+                // El rayo va debajo del destello, como en la figura original
+                if (animationFrame % 2 == 0) {
+                    LIGHTNING[t].drawRows(g2d, 0, x, y, SkyRunnerGame.HEIGHT - (y + height));
+                }
+                SHEETS[t].draw(g2d, animationFrame % 2, x, y);
+                break;
+            case TURBINE:
+            case FLOATING_PLATFORM:
+                SHEETS[t].draw(g2d, animationFrame, x, y);
+                break;
+            default:
+                SHEETS[t].draw(g2d, 0, x, y);
+        }
+    }
+
+    // Fotogramas de un tipo, pintados con un prototipo del tamaño por defecto
+    private static void createSheets(Type type) {
+        Obstacle prototype = new Obstacle(0, 0, type);
+        int w = prototype.width;
+        int h = prototype.height;
+        int t = type.ordinal();
+        SpriteAtlas.Painter painter = (g2d, frame) -> {
+            prototype.animationFrame = frame;
+            prototype.drawVector(g2d);
+        };
+        switch (type) {
+            case ELECTRIC_STORM:
+            case CRYSTAL_SPIKE:
+                // Nube y destello; del rayo solo el principio, que la tira repite
+                SHEETS[t] = new SpriteAtlas.Sheet(-11, -16, w + 22, h + 28, 2, painter);
+                LIGHTNING[t] = new SpriteAtlas.Sheet(w/2 - 13, h, 27, SkyRunnerGame.HEIGHT, 1,
+                    (g2d, frame) -> drawLightning(g2d, w/2, h, h + SkyRunnerGame.HEIGHT));
+                break;
+            case TURBINE:
+            case FLOATING_PLATFORM:
+                // Estela a la izquierda y aspas que pueden salir de la caja
+                int top = Math.min(-1, h/2 - 27);
+                int right = Math.max(w + 1, w/2 + 27);
+                int bottom = Math.max(h + 1, h/2 + 27);
+                SHEETS[t] = new SpriteAtlas.Sheet(-41, top, right + 41, bottom - top, 8, painter);
+                break;
+            default:
+                // Las franjas de la torre llegan hasta y + 83 aunque sea más baja
+                SHEETS[t] = new SpriteAtlas.Sheet(-1, -16, w + 2, Math.max(h + 2, 84) + 16, 1, painter);
+        }
+        SHEET_WIDTH[t] = w;
+        SHEET_HEIGHT[t] = h;
+    }
+
+    private void drawBuildingSprites(Graphics2D g2d) {
+        if (windows == null || windowsWidth != width) {
+            windowsWidth = width;
+            windows = BUILDING_WINDOWS.computeIfAbsent(width, Obstacle::createWindows);
+        }
+        g2d.setColor(BUILDING_BODY);
+        g2d.fillRect(x, y, width, height);
+        g2d.setColor(BUILDING_BORDER);
+        g2d.drawRect(x, y, width, height);
+        // Las mismas filas que drawCityBuilding: height / 30 (mínimo 3) mientras quepan
+        int rows = Math.max(3, height / 30);
+        int fit = height >= 30 ? (height - 30) / WINDOW_STEP_Y + 1 : 0;
+        rows = Math.min(rows, fit);
+        windows.drawRows(g2d, 0, x, y, BUILDING_TOP + WINDOW_PAD_Y + rows * WINDOW_STEP_Y);
+    }
+
+    // Indicador y ventanas de un edificio de la pantalla entera de alto
+    private static SpriteAtlas.Sheet createWindows(int width) {
+        Obstacle prototype = new Obstacle(0, width, SkyRunnerGame.HEIGHT, 0, true, Type.CITY_BUILDING);
+        return new SpriteAtlas.Sheet(0, -BUILDING_TOP, width, BUILDING_TOP + SkyRunnerGame.HEIGHT, 1,
+                                     (g2d, frame) -> prototype.drawCityBuilding(g2d, false));
+    }
+
+    // Figura con primitivas; para el atlas, la máscara y los tamaños sin sprite
+    private void drawVector(Graphics2D g2d) {
         switch (type) {
             case ROCK_TOWER:
             case CLOUD_KINGDOM_TOWER:
@@ -75,7 +222,7 @@ public class Obstacle extends GameObject {
                 drawTurbine(g2d);
                 break;
             case CITY_BUILDING:
-                drawCityBuilding(g2d);
+                drawCityBuilding(g2d, true);
                 break;
         }
     }
@@ -105,22 +252,7 @@ public class Obstacle extends GameObject {
         g2d.fillOval(x + 10, y + 5, width - 20, height/2);
         
         if (animationFrame % 2 == 0) {
-            g2d.setColor(new Color(255, 255, 0));
-            int startX = x + width/2;
-            int startY = y + height;
-            int endY = SkyRunnerGame.HEIGHT;
-            int segment = 20;
-            int offset = 12;
-            int prevX = startX;
-            int prevY = startY;
-            for (int yy = startY; yy < endY; yy += segment) {
-                int dir = ((yy - startY) / segment) % 2 == 0 ? -offset : offset;
-                int nextX = startX + dir;
-                int nextY = Math.min(yy + segment, endY);
-                g2d.drawLine(prevX, prevY, nextX, nextY);
-                prevX = nextX;
-                prevY = nextY;
-            }
+            drawLightning(g2d, x + width/2, y + height, SkyRunnerGame.HEIGHT);
             
             g2d.setColor(new Color(255, 255, 255, 100));
             g2d.fillOval(x + width/2 - 15, y + height - 10, 30, 20);
@@ -132,6 +264,23 @@ public class Obstacle extends GameObject {
         }
     }
     
+    // Zigzag de (startX, startY) hasta endY
+    private static void drawLightning(Graphics2D g2d, int startX, int startY, int endY) {
+        g2d.setColor(new Color(255, 255, 0));
+        int segment = 20;
+        int offset = 12;
+        int prevX = startX;
+        int prevY = startY;
+        for (int yy = startY; yy < endY; yy += segment) {
+            int dir = ((yy - startY) / segment) % 2 == 0 ? -offset : offset;
+            int nextX = startX + dir;
+            int nextY = Math.min(yy + segment, endY);
+            g2d.drawLine(prevX, prevY, nextX, nextY);
+            prevX = nextX;
+            prevY = nextY;
+        }
+    }
+    
     private void drawTurbine(Graphics2D g2d) {
         g2d.setColor(new Color(105, 105, 105));
         g2d.fillRect(x, y, width, height);
@@ -158,10 +307,13 @@ public class Obstacle extends GameObject {
         }
     }
 
-    private void drawCityBuilding(Graphics2D g2d) {
+    // withBody = false: solo ventanas e indicador (sprite de drawBuildingSprites)
+    private void drawCityBuilding(Graphics2D g2d, boolean withBody) {
         // Cuerpo del edificio
-        g2d.setColor(new Color(90, 90, 120));
-        g2d.fillRect(x, y, width, height);
+        if (withBody) {
+            g2d.setColor(BUILDING_BODY);
+            g2d.fillRect(x, y, width, height);
+        }
         
         // Ventanas en rejilla
         g2d.setColor(new Color(200, 220, 255, 180));
@@ -179,8 +331,10 @@ public class Obstacle extends GameObject {
         }
         
         // Borde
-        g2d.setColor(new Color(60, 60, 80));
-        g2d.drawRect(x, y, width, height);
+        if (withBody) {
+            g2d.setColor(BUILDING_BORDER);
+            g2d.drawRect(x, y, width, height);
+        }
         
         // Indicador
         g2d.setColor(Color.RED);
@@ -195,13 +349,27 @@ public class Obstacle extends GameObject {
         return type;
     }
     
+    // Columna de rayos bajo la tormenta eléctrica, hasta el suelo
+    public boolean hasLightningColumn() {
+        return type == Type.ELECTRIC_STORM;
+    }
+    
+    public int getLightningColumnX() {
+        return x + width / 2 - LIGHTNING_COLUMN_WIDTH / 2;
+    }
+    
+    public int getLightningColumnY() {
+        return y + height;
+    }
+    
+    public int getLightningColumnHeight(int gameHeight) {
+        return Math.max(0, gameHeight - (y + height));
+    }
+    
     public Rectangle getLightningColumnBounds(int gameHeight) {
-        if (type != Type.ELECTRIC_STORM) return null;
-        int columnWidth = 24;
-        int cx = x + width / 2;
-        int topY = y + height;
-        int h = Math.max(0, gameHeight - topY);
-        return new Rectangle(cx - columnWidth / 2, topY, columnWidth, h);
+        if (!hasLightningColumn()) return null;
+        return new Rectangle(getLightningColumnX(), getLightningColumnY(),
+                             LIGHTNING_COLUMN_WIDTH, getLightningColumnHeight(gameHeight));
     }
     
     public void applyEffect(Aero player) {
@@ -220,7 +388,4 @@ public class Obstacle extends GameObject {
         }
     }
     
-    public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
-    }
 }
@@ -0,0 +1,163 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Fondo de elementos del mundo (WorldFeature) como tiras de parallax. Cada
+// capa de profundidad es una tira horizontal partida en baldosas de
+// TILE_WIDTH x BAND_HEIGHT en coordenadas de la capa; en memoria hay un anillo
+// de RING baldosas por capa, las que caben en pantalla. Al avanzar la cámara
+// la baldosa que sale por la izquierda se reutiliza para la que entra por la
+// derecha y se dibuja una vez con los elementos que tocan su tramo. Dibujar
+// el fondo son, por capa, las dos a cinco baldosas visibles, sin importar
+// cuántos elementos haya.
+//
+// Cuando el motor añade o quita elementos (getWorldFeaturesVersion) se
+// vuelven a dibujar solo las baldosas cuyo contenido ha cambiado. Se
+// rasterizan a la escala del SpriteAtlas actual.
+//
+// Solo se usa desde el hilo que dibuja.
+public class ParallaxBackground {
+
+    static final int TILE_WIDTH = 256;
+    // Franja en que aparecen los elementos: de BAND_TOP al suelo
+    static final int BAND_TOP = GameEngine.HEIGHT - 340;
+    static final int BAND_HEIGHT = GameEngine.HEIGHT - BAND_TOP;
+    // Baldosas que pueden verse a la vez en una capa
+    private static final int RING = GameEngine.WIDTH / TILE_WIDTH + 2;
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final Layer[] layers = new Layer[WorldFeature.LAYERS];
+    // Motor, versión de sus elementos y escala con que están dibujadas las baldosas
+    private GameEngine engine;
+    private int version;
+    private double scale;
+    // Baldosas dibujadas desde que se creó (métrica)
+    private long tilesRendered;
+
+    public ParallaxBackground() {
+        for (int l = 0; l < layers.length; l++) layers[l] = new Layer(l);
+    }
+
+    // Dibuja las capas de la más lejana a la más cercana con la cámara en camera
+    public void draw(Graphics2D g2d, GameEngine engine, double camera) {
+        double atlasScale = SpriteAtlas.current().getScale();
+        if (engine != this.engine || atlasScale != scale) {
+            this.engine = engine;
+            this.version = engine.getWorldFeaturesVersion();
+            this.scale = atlasScale;
+            for (Layer layer : layers) layer.discard();
+        } else if (engine.getWorldFeaturesVersion() != version) {
+            version = engine.getWorldFeaturesVersion();
+            for (Layer layer : layers) layer.refresh(engine.getWorldFeatures());
+        }
+        for (Layer layer : layers) layer.draw(g2d, engine.getWorldFeatures(), camera);
+    }
+
+    public long getTilesRendered() { return tilesRendered; }
+
+    private final class Layer {
+        private final int index;
+        private final double parallax;
+        private final BufferedImage[] tiles = new BufferedImage[RING];
+        // Tramo (x / TILE_WIDTH) que tiene cada baldosa, resumen de sus
+        // elementos, si no tiene ninguno (entonces no se dibuja) y la primera
+        // fila con algo (lo de encima es transparente y no se copia)
+        private final int[] tileOf = new int[RING];
+        private final int[] contents = new int[RING];
+        private final boolean[] empty = new boolean[RING];
+        private final int[] top = new int[RING];
+
+        Layer(int index) {
+            this.index = index;
+            this.parallax = WorldFeature.layerParallax(index);
+            Arrays.fill(tileOf, NONE);
+        }
+
+        void discard() {
+            Arrays.fill(tiles, null);
+            Arrays.fill(tileOf, NONE);
+        }
+
+        // Marca para dibujar de nuevo las baldosas cuyos elementos han cambiado
+        void refresh(ArrayList<WorldFeature> features) {
+            for (int slot = 0; slot < RING; slot++) {
+                if (tileOf[slot] != NONE && contents[slot] != contentsOf(features, tileOf[slot])) {
+                    tileOf[slot] = NONE;
+                }
+            }
+        }
+
+        void draw(Graphics2D g2d, ArrayList<WorldFeature> features, double camera) {
+            double offset = camera * parallax;
+            int first = Math.floorDiv((int) Math.floor(offset), TILE_WIDTH);
+            int last = Math.floorDiv((int) Math.floor(offset) + GameEngine.WIDTH, TILE_WIDTH);
+            for (int tile = first; tile <= last; tile++) {
+                int slot = Math.floorMod(tile, RING);
+                if (tileOf[slot] != tile) render(slot, tile, features);
+                if (empty[slot]) continue;
+                BufferedImage image = tiles[slot];
+                int rows = BAND_HEIGHT - top[slot];
+                double x = tile * TILE_WIDTH - offset;
+                g2d.translate(x, BAND_TOP);
+                g2d.drawImage(image, 0, top[slot], TILE_WIDTH, BAND_HEIGHT,
+                              0, image.getHeight() - (int) Math.ceil(rows * scale), image.getWidth(), image.getHeight(), null);
+                g2d.translate(-x, -BAND_TOP);
+            }
+        }
+
+        // Dibuja en la baldosa slot los elementos de la capa que tocan el tramo
+        // tile, reutilizando su imagen
+        private void render(int slot, int tile, ArrayList<WorldFeature> features) {
+            tileOf[slot] = tile;
+            contents[slot] = contentsOf(features, tile);
+            empty[slot] = contents[slot] == 0;
+            if (empty[slot]) return;
+            BufferedImage image = tiles[slot];
+            if (image == null) {
+                int w = (int) Math.ceil(TILE_WIDTH * scale);
+                int h = (int) Math.ceil(BAND_HEIGHT * scale);
+                image = tiles[slot] = SpriteAtlas.createImage(w, h);
+            }
+            Graphics2D g = image.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setComposite(AlphaComposite.SrcOver);
+            g.scale(scale, scale);
+            g.translate(-tile * TILE_WIDTH, -BAND_TOP);
+            int firstRow = BAND_HEIGHT;
+            for (int i = 0; i < features.size(); i++) {
+                WorldFeature wf = features.get(i);
+                if (touches(wf, tile)) {
+                    wf.draw(g);
+                    // La antena de las torres sobresale 10 px por arriba
+                    firstRow = Math.min(firstRow, wf.y - 12 - BAND_TOP);
+                }
+            }
+            top[slot] = Math.max(0, firstRow);
+            g.dispose();
+            tilesRendered++;
+        }
+
+        // Resumen de los elementos que tocan el tramo (0 si no hay ninguno)
+        private int contentsOf(ArrayList<WorldFeature> features, int tile) {
+            int h = 0;
+            boolean any = false;
+            for (int i = 0; i < features.size(); i++) {
+                WorldFeature wf = features.get(i);
+                if (touches(wf, tile)) {
+                    h = 31 * h + System.identityHashCode(wf);
+                    any = true;
+                }
+            }
+            return !any ? 0 : h == 0 ? 1 : h;
+        }
+
+        // Los detalles (líneas, antena) no salen de la caja del elemento más
+        // que un par de píxeles
+        private boolean touches(WorldFeature wf, int tile) {
+            int left = tile * TILE_WIDTH;
+            return wf.getLayer() == index && wf.x - 2 < left + TILE_WIDTH && wf.x + wf.width + 2 > left;
+        }
+    }
+}
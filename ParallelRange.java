@@ -0,0 +1,55 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Reparte un bucle sobre los índices [0, count) en tramos de CHUNK elementos
+// que se ejecutan en un ForkJoinPool. Por debajo de THRESHOLD (o sin pool)
+// se ejecuta entero en el hilo actual sin crear nada: con los objetos de una
+// partida normal no compensa despertar otros hilos.
+//
+// El cuerpo solo puede escribir en los elementos de su tramo. Lo que afecta a
+// otros (p. ej. disparar) se deja para una pasada en serie después, en orden
+// de índice, así el resultado es el mismo con cualquier número de hilos.
+public final class ParallelRange {
+
+    public static final int THRESHOLD = 4096;
+    public static final int CHUNK = 1024;
+
+    public interface Body {
+        void run(int from, int to);
+    }
+
+    private ParallelRange() {}
+
+    public static void forEach(ForkJoinPool pool, int count, Body body) {
+        if (pool == null || count < THRESHOLD || pool.getParallelism() < 2) {
+            body.run(0, count);
+        } else {
+            pool.invoke(new Chunk(body, 0, count));
+        }
+    }
+
+    // Divide por la mitad hasta llegar a CHUNK elementos
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Body body;
+        private final int from;
+        private final int to;
+
+        Chunk(Body body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunk(body, from, mid), new Chunk(body, mid, to));
+        }
+    }
+}
@@ -6,9 +6,35 @@ public class PowerUp extends GameObject {
         TURBO, SCORE_BOOST, SHIELD, HEALTH
     }
     
+    private static final double ANIMATION_FRAME_TIME = 3.0 / 60.0;
+    // Variación del brillo por segundo
+    private static final float GLOW_RATE = 1.2f;
+    // Sprites (SpriteAtlas): el cuerpo con el símbolo de cada tipo y, con el
+    // brillo al máximo, el halo de debajo y el aro y las partículas de cada
+    // fotograma; el halo y las partículas se dibujan con la transparencia del
+    // brillo actual
+    private static final Type[] TYPES = Type.values();
+    private static final SpriteAtlas.Sheet BODY = new SpriteAtlas.Sheet(0, 0, 31, 31, TYPES.length, (g2d, frame) -> {
+        PowerUp prototype = new PowerUp(0, 0, TYPES[frame]);
+        g2d.setColor(prototype.getPowerUpColor());
+        g2d.fillOval(0, 0, prototype.width, prototype.height);
+        prototype.drawSymbol(g2d);
+    });
+    private static final SpriteAtlas.Sheet GLOW = new SpriteAtlas.Sheet(-6, -6, 42, 42, 1, (g2d, frame) -> {
+        g2d.setColor(new Color(255, 255, 255, 50));
+        g2d.fillOval(-5, -5, 40, 40);
+    });
+    private static final SpriteAtlas.Sheet SPARKLE = new SpriteAtlas.Sheet(-8, -8, 46, 46, 8, (g2d, frame) -> {
+        PowerUp prototype = new PowerUp(0, 0, Type.TURBO);
+        prototype.animationFrame = frame;
+        prototype.glowIntensity = 1.0f;
+        prototype.drawRing(g2d);
+        prototype.drawParticles(g2d);
+    });
+    
     public Type type;
     private int animationFrame = 0;
-    private int animationDelay = 0;
+    private double animationTime = 0;
     private float glowIntensity = 0;
     private boolean glowIncreasing = true;
     
@@ -17,40 +43,42 @@ public class PowerUp extends GameObject {
         this.type = type;
     }
     
+    // Deja el power-up como recién creado (EntityPools lo reutiliza)
+    public void reset(int x, int y, Type type) {
+        resetObject(x, y, 30, 30);
+        this.type = type;
+        this.animationFrame = 0;
+        this.animationTime = 0;
+        this.glowIntensity = 0;
+        this.glowIncreasing = true;
+    }
+    
     @Override
-    public void update() {
-        animationDelay++;
-        if (animationDelay >= 3) {
+    public void update(double dt) {
+        animationTime += dt;
+        while (animationTime >= ANIMATION_FRAME_TIME) {
             animationFrame = (animationFrame + 1) % 8;
-            animationDelay = 0;
+            animationTime -= ANIMATION_FRAME_TIME;
         }
         
         // Efecto de brillo pulsante
         if (glowIncreasing) {
-            glowIntensity += 0.02;
+            glowIntensity += GLOW_RATE * dt;
             if (glowIntensity >= 1.0f) {
                 glowIntensity = 1.0f;
                 glowIncreasing = false;
             }
         } else {
-            glowIntensity -= 0.02;
+            glowIntensity -= GLOW_RATE * dt;
             if (glowIntensity <= 0.3f) {
                 glowIntensity = 0.3f;
                 glowIncreasing = true;
             }
         }
         
-        // Movimiento flotante
-        y += Math.sin(animationFrame * 0.5) * 0.5;
-    }
-    
-    public void update(int scrollSpeed) {
-        x -= scrollSpeed;
-        update();
-    }
-    
-    public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
+        // Movimiento flotante (sube y baja una vez por ciclo de animación)
+        double phase = (animationFrame + animationTime / ANIMATION_FRAME_TIME) / 8.0 * 2 * Math.PI;
+        moveBy(0, Math.cos(phase) * 30.0 * dt);
     }
     
     public void applyEffect(Aero player) {
@@ -72,27 +100,23 @@ public class PowerUp extends GameObject {
     
     @Override
     public void draw(Graphics2D g2d) {
-        // Efecto de brillo exterior
-        g2d.setColor(new Color(255, 255, 255, (int)(50 * glowIntensity)));
-        g2d.fillOval(x - 5, y - 5, width + 10, height + 10);
-        
-        // Círculo exterior
-        g2d.setColor(getPowerUpColor());
-        g2d.fillOval(x, y, width, height);
-        
-        // Símbolo interior
-        drawSymbol(g2d);
-        
-        // Efecto de rotación
+        AlphaComposite glow = SpriteAtlas.fade(glowIntensity);
+        g2d.setComposite(glow);
+        GLOW.draw(g2d, 0, x, y);
+        g2d.setComposite(AlphaComposite.SrcOver);
+        BODY.draw(g2d, type.ordinal(), x, y);
+        g2d.setComposite(glow);
+        SPARKLE.draw(g2d, animationFrame, x, y);
+        g2d.setComposite(AlphaComposite.SrcOver);
+    }
+
+    private void drawRing(Graphics2D g2d) {
         g2d.setColor(new Color(255, 255, 255, (int)(100 * glowIntensity)));
         int rotationAngle = animationFrame * 45;
         Graphics2D g2dRotated = (Graphics2D) g2d.create();
         g2dRotated.rotate(Math.toRadians(rotationAngle), x + width/2, y + height/2);
         g2dRotated.drawOval(x - 2, y - 2, width + 4, height + 4);
         g2dRotated.dispose();
-        
-        // Partículas brillantes
-        drawParticles(g2d);
     }
     
     private Color getPowerUpColor() {
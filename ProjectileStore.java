@@ -0,0 +1,205 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Proyectiles del jugador y de los enemigos sobre un EntityStore. Sustituye a
+// la antigua clase Projectile: un proyectil ya no es un objeto sino una fila
+// de las columnas del almacén, y el movimiento, la limpieza y el dibujo son
+// bucles sobre todos ellos. Está pensado para miles de balas a la vez (los
+// patrones de BulletPattern emiten aquí).
+//
+// Coordenadas de mundo. La velocidad propia (vx, vy) se suma a la deriva en el
+// mundo de cada tipo: los enemigos se acercan en pantalla a 480 px/s más el
+// desplazamiento menos 180, y los del jugador avanzan a 900 px/s.
+public class ProjectileStore extends EntityStore {
+
+    public static final int PLAYER_SHOT = 0;
+    public static final int ENEMY_SHOT = 1;
+
+    // Dibujo de 8x4 con caja de colisión de 8x8
+    private static final int DRAW_WIDTH = 8;
+    private static final int DRAW_HEIGHT = 4;
+    private static final int HITBOX_SIZE = 8;
+    private static final double ENEMY_DRIFT = 180.0;
+    private static final double PLAYER_DRIFT = 300.0;
+    // Ondulación vertical de ±2 px con un periodo de 64 px de recorrido, en
+    // tabla para no calcular un seno por bala y paso
+    private static final int WOBBLE_PERIOD = 64;
+    private static final int[] WOBBLE = new int[WOBBLE_PERIOD];
+    // Estela: posiciones pasadas separadas TRAIL_STEP segundos
+    private static final int TRAIL_LENGTH = 5;
+    private static final double TRAIL_STEP = 1.0 / 60.0;
+
+    // Sprites con la estela ya dibujada, uno por tipo, dirección, separación
+    // entre puntos de la estela y puntos visibles (la estela crece al salir).
+    // Se crean la primera vez que se usan, desde el hilo que dibuja.
+    private static final int DIRECTIONS = 32;
+    private static final int MAX_SPACING = 32;
+    private static final int TRAIL_STATES = TRAIL_LENGTH + 1;
+    private static final BufferedImage[] SPRITES = new BufferedImage[2 * DIRECTIONS * MAX_SPACING * TRAIL_STATES];
+    // Posición del proyectil dentro de su sprite
+    private static final int[] SPRITE_X = new int[SPRITES.length];
+    private static final int[] SPRITE_Y = new int[SPRITES.length];
+
+    private static final Color[] PLAYER_TRAIL = trailColors(Color.YELLOW);
+    private static final Color[] ENEMY_TRAIL = trailColors(Color.RED);
+    private static final Color SHINE = new Color(255, 255, 255, 200);
+    private static final Color PLAYER_AURA = new Color(255, 255, 0, 100);
+
+    static {
+        for (int i = 0; i < WOBBLE_PERIOD; i++) {
+            WOBBLE[i] = (int) Math.round(2.0 * Math.sin(2 * Math.PI * i / WOBBLE_PERIOD));
+        }
+    }
+
+    // Deriva de los disparos del jugador en el último paso (depende del turbo)
+    private double playerDrift = PLAYER_DRIFT;
+
+    public ProjectileStore() {
+        super(256);
+    }
+
+    // speed: velocidad propia horizontal en píxeles por segundo (negativa hacia la izquierda)
+    public void spawn(int px, int py, double speed, boolean enemyShot) {
+        spawn(px, py, speed, 0.0, enemyShot);
+    }
+
+    public void spawn(int px, int py, double velocityX, double velocityY, boolean enemyShot) {
+        int i = create(enemyShot ? ENEMY_SHOT : PLAYER_SHOT, px, py, HITBOX_SIZE, HITBOX_SIZE);
+        vx[i] = velocityX;
+        vy[i] = velocityY;
+    }
+
+    public boolean isEnemyShot(int i) {
+        return type[i] == ENEMY_SHOT;
+    }
+
+    // Avance de un paso. originY sigue la velocidad vertical y la ondulación
+    // se suma encima; depende solo de la posición, así que es igual a
+    // cualquier frecuencia.
+    public void update(double dt, double scrollSpeed) {
+        beginUpdate(scrollSpeed);
+        update(0, size, dt);
+    }
+
+    // Para actualizar por tramos (ParallelRange): beginUpdate una vez en el
+    // hilo del motor y después update de cada tramo [from, to), que solo
+    // escribe en sus filas
+    public void beginUpdate(double scrollSpeed) {
+        playerDrift = PLAYER_DRIFT + scrollSpeed;
+    }
+
+    public void update(int from, int to, double dt) {
+        double playerDrift = this.playerDrift;
+        for (int i = from; i < to; i++) {
+            double drift = type[i] == ENEMY_SHOT ? ENEMY_DRIFT : playerDrift;
+            double sx = subX[i] + (vx[i] + drift) * dt;
+            double sy = subY[i] + vy[i] * dt;
+            int ix = (int) sx;
+            int iy = (int) sy;
+            x[i] += ix;
+            originY[i] += iy;
+            subX[i] = sx - ix;
+            subY[i] = sy - iy;
+            y[i] = originY[i] + WOBBLE[x[i] & (WOBBLE_PERIOD - 1)];
+            animTime[i] += dt;
+        }
+    }
+
+    // Quita los que han salido del rectángulo [left, right] x [top, bottom]
+    public void removeOutside(int left, int right, int top, int bottom) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (x[i] < left || x[i] > right || y[i] < top || y[i] > bottom) remove(i);
+        }
+    }
+
+    // Dibuja todos los proyectiles, interpolados entre el paso anterior y el
+    // actual (alpha: fracción del paso transcurrida). Cada uno es un único
+    // drawImage de un sprite con la estela, sin crear objetos ni cambiar de
+    // color por proyectil.
+    public void draw(Graphics2D g2d, double alpha) {
+        double back = 1.0 - alpha;
+        for (int i = 0; i < size; i++) {
+            int sprite = spriteIndex(i);
+            int px = x[i] + (int) Math.round((prevX[i] - x[i]) * back);
+            int py = y[i] + (int) Math.round((prevY[i] - y[i]) * back);
+            g2d.drawImage(SPRITES[sprite], px - SPRITE_X[sprite], py - SPRITE_Y[sprite], null);
+        }
+    }
+
+    // Sprite de la bala i según su velocidad en el mundo y su edad
+    private int spriteIndex(int i) {
+        boolean enemyShot = type[i] == ENEMY_SHOT;
+        double worldX = vx[i] + (enemyShot ? ENEMY_DRIFT : playerDrift);
+        double worldY = vy[i];
+        int direction;
+        if (worldY == 0.0) {
+            direction = worldX >= 0 ? 0 : DIRECTIONS / 2;
+        } else {
+            double turns = Math.atan2(worldY, worldX) / (2 * Math.PI);
+            direction = (int) Math.round(turns * DIRECTIONS) & (DIRECTIONS - 1);
+        }
+        int spacing = (int) Math.round(Math.sqrt(worldX * worldX + worldY * worldY) * TRAIL_STEP);
+        if (spacing >= MAX_SPACING) spacing = MAX_SPACING - 1;
+        int shown = (int) (animTime[i] / TRAIL_STEP);
+        if (shown > TRAIL_LENGTH) shown = TRAIL_LENGTH;
+
+        int index = ((type[i] * DIRECTIONS + direction) * MAX_SPACING + spacing) * TRAIL_STATES + shown;
+        if (SPRITES[index] == null) buildSprite(index, enemyShot, direction, spacing, shown);
+        return index;
+    }
+
+    // Estela hacia atrás en la dirección del movimiento: el punto k está a
+    // (k + 1) pasos de estela, sin pasar de la posición de salida
+    private static void buildSprite(int index, boolean enemyShot, int direction, int spacing, int shown) {
+        double angle = 2 * Math.PI * direction / DIRECTIONS;
+        double backX = -Math.cos(angle);
+        double backY = -Math.sin(angle);
+        int[] trailX = new int[TRAIL_LENGTH];
+        int[] trailY = new int[TRAIL_LENGTH];
+        int minX = -2, minY = -2, maxX = DRAW_WIDTH + 2, maxY = DRAW_HEIGHT + 2;
+        for (int k = 0; k < TRAIL_LENGTH; k++) {
+            int distance = Math.min(shown, k + 1) * spacing;
+            trailX[k] = (int) Math.round(backX * distance);
+            trailY[k] = (int) Math.round(backY * distance);
+            minX = Math.min(minX, trailX[k]);
+            minY = Math.min(minY, trailY[k]);
+            maxX = Math.max(maxX, trailX[k] + DRAW_WIDTH);
+            maxY = Math.max(maxY, trailY[k] + DRAW_HEIGHT);
+        }
+
+        BufferedImage image = new BufferedImage(maxX - minX, maxY - minY, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = image.createGraphics();
+        g2d.translate(-minX, -minY);
+        Color[] trail = enemyShot ? ENEMY_TRAIL : PLAYER_TRAIL;
+        for (int k = 0; k < TRAIL_LENGTH; k++) {
+            g2d.setColor(trail[k]);
+            g2d.fillOval(trailX[k], trailY[k], DRAW_WIDTH - k, DRAW_HEIGHT - k);
+        }
+
+        // Proyectil principal con brillo
+        g2d.setColor(trail[0]);
+        g2d.fillOval(0, 0, DRAW_WIDTH, DRAW_HEIGHT);
+        g2d.setColor(SHINE);
+        g2d.fillOval(1, 1, DRAW_WIDTH - 2, DRAW_HEIGHT - 2);
+
+        // Aura para proyectiles del jugador
+        if (!enemyShot) {
+            g2d.setColor(PLAYER_AURA);
+            g2d.fillOval(-2, -2, DRAW_WIDTH + 4, DRAW_HEIGHT + 4);
+        }
+        g2d.dispose();
+
+        SPRITE_X[index] = -minX;
+        SPRITE_Y[index] = -minY;
+        SPRITES[index] = image;
+    }
+
+    private static Color[] trailColors(Color color) {
+        Color[] colors = new Color[TRAIL_LENGTH];
+        for (int k = 0; k < TRAIL_LENGTH; k++) {
+            int alpha = (int) (255 * (1.0 - (double) k / TRAIL_LENGTH));
+            colors[k] = new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+        }
+        return colors;
+    }
+}
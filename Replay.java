@@ -0,0 +1,198 @@
+import java.io.*;
+
+// Grabación de una partida: semilla, configuración y la máscara de entradas de
+// cada paso, codificada por tramos (run-length) con enteros de longitud variable.
+// Cada cierto número de pasos se guarda un punto clave con la posición del
+// tramo en el flujo y un resumen del estado para comprobar la reproducción.
+//
+// Formato de cada tramo: un byte con la máscara en los 6 bits bajos y la
+// longitud - 1 en los 2 altos; si esos 2 bits valen 3, sigue un varint con
+// (longitud - 4).
+public class Replay {
+
+    private static final int MAGIC = 0x534B5952; // "SKYR"
+    // Versión 2: física en unidades por segundo y frecuencia de simulación variable
+    // Versión 3: objetos en coordenadas de mundo con cámara (cambian los hashes de estado)
+    // Versión 4: colisiones barridas de los proyectiles y cadencia de disparo exacta
+    // Versión 5: colisiones con máscaras de píxeles
+    // Versión 6: proyectiles en ProjectileStore (cambia su orden al borrar)
+    // Versión 7: ondulación de los proyectiles en tabla y límites verticales
+    // Versión 8: bit INPUT_THROTTLE del regulador en la máscara (6 bits)
+    // Versión 9: límites de objetos vivos con INPUT_THROTTLE y puntuación por
+    //            distancia por nivel (cambian el resultado y los hashes)
+    // Versión 10: velocidades con turbo del nivel (las de 60 FPS con truncado)
+    private static final int VERSION = 10;
+
+    static final int MASK_BITS = 0x3F;
+    static final int RUN_SHIFT = 6;
+    static final int INLINE_RUN_MAX = 3;
+
+    private final long seed;
+    private final GameEngine.Difficulty difficulty;
+    private final GameEngine.World world;
+    private final int ticksPerSecond;
+    private final int keyframeInterval;
+    private final int tickCount;
+    private final byte[] inputs;
+    private final int[] keyframeOffsets;
+    private final int[] keyframeHashes;
+
+    Replay(long seed, GameEngine.Difficulty difficulty, GameEngine.World world,
+           int ticksPerSecond, int keyframeInterval, int tickCount,
+           byte[] inputs, int[] keyframeOffsets, int[] keyframeHashes) {
+        this.seed = seed;
+        this.difficulty = difficulty;
+        this.world = world;
+        this.ticksPerSecond = ticksPerSecond;
+        this.keyframeInterval = keyframeInterval;
+        this.tickCount = tickCount;
+        this.inputs = inputs;
+        this.keyframeOffsets = keyframeOffsets;
+        this.keyframeHashes = keyframeHashes;
+    }
+
+    // Motor nuevo con la misma configuración que la partida grabada
+    public GameEngine createEngine() {
+        return new GameEngine(difficulty, world, seed, SpawnTuning.defaults(difficulty), ticksPerSecond);
+    }
+
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            out.writeByte(difficulty.ordinal());
+            out.writeByte(world.ordinal());
+            writeVarint(out, ticksPerSecond);
+            writeVarint(out, keyframeInterval);
+            writeVarint(out, tickCount);
+            writeVarint(out, keyframeOffsets.length);
+            int previous = 0;
+            for (int i = 0; i < keyframeOffsets.length; i++) {
+                writeVarint(out, keyframeOffsets[i] - previous);
+                out.writeInt(keyframeHashes[i]);
+                previous = keyframeOffsets[i];
+            }
+            writeVarint(out, inputs.length);
+            out.write(inputs);
+        }
+    }
+
+    public static Replay load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("No es una grabación de Sky Runner: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Versión de grabación no soportada: " + version);
+            }
+            long seed = in.readLong();
+            int difficultyIndex = in.readUnsignedByte();
+            if (difficultyIndex >= GameEngine.Difficulty.values().length) {
+                throw new IOException("Dificultad desconocida en la grabación: " + difficultyIndex);
+            }
+            int worldIndex = in.readUnsignedByte();
+            if (worldIndex >= GameEngine.World.values().length) {
+                throw new IOException("Mundo desconocido en la grabación: " + worldIndex);
+            }
+            GameEngine.Difficulty difficulty = GameEngine.Difficulty.values()[difficultyIndex];
+            GameEngine.World world = GameEngine.World.values()[worldIndex];
+            int ticksPerSecond = readVarint(in);
+            if (!TickRate.isSupported(ticksPerSecond)) {
+                throw new IOException("Frecuencia de simulación no soportada: " + ticksPerSecond + " Hz");
+            }
+            int keyframeInterval = readVarint(in);
+            int tickCount = readVarint(in);
+            int keyframes = readVarint(in);
+            // Un punto clave al empezar cada intervalo grabado, y cada uno ocupa al
+            // menos 5 bytes: se comprueba antes de reservar nada
+            if (keyframeInterval <= 0 || tickCount < 0 || keyframes < 0
+                    || keyframes != (tickCount + (long) keyframeInterval - 1) / keyframeInterval
+                    || keyframes * 5L > file.length()) {
+                throw new IOException("Cabecera de grabación corrupta: " + file);
+            }
+            int[] offsets = new int[keyframes];
+            int[] hashes = new int[keyframes];
+            int previous = 0;
+            for (int i = 0; i < keyframes; i++) {
+                offsets[i] = previous + readVarint(in);
+                hashes[i] = in.readInt();
+                if (offsets[i] < previous || (i == 0 && offsets[i] != 0)) {
+                    throw new IOException("Puntos clave desordenados en la grabación: " + file);
+                }
+                previous = offsets[i];
+            }
+            int inputLength = readVarint(in);
+            if (inputLength < 0 || inputLength > file.length()) {
+                throw new IOException("Cabecera de grabación corrupta: " + file);
+            }
+            if (keyframes > 0 && offsets[keyframes - 1] >= inputLength) {
+                throw new IOException("Punto clave fuera de las entradas grabadas: " + file);
+            }
+            byte[] inputs = new byte[inputLength];
+            in.readFully(inputs);
+            if (countTicks(inputs) != tickCount) {
+                throw new IOException("Las entradas no cubren los " + tickCount + " pasos grabados: " + file);
+            }
+            return new Replay(seed, difficulty, world, ticksPerSecond, keyframeInterval,
+                              tickCount, inputs, offsets, hashes);
+        }
+    }
+
+    // Pasos que codifican los tramos, o -1 si el último está cortado
+    private static long countTicks(byte[] data) {
+        long ticks = 0;
+        int offset = 0;
+        while (offset < data.length) {
+            int run = (data[offset++] & 0xFF) >>> RUN_SHIFT;
+            if (run == INLINE_RUN_MAX) {
+                long extra = 0;
+                int v;
+                int shift = 0;
+                do {
+                    if (offset >= data.length || shift >= 35) return -1;
+                    v = data[offset++] & 0xFF;
+                    extra |= (long) (v & 0x7F) << shift;
+                    shift += 7;
+                } while ((v & 0x80) != 0);
+                ticks += INLINE_RUN_MAX + 1 + extra;
+            } else {
+                ticks += run + 1;
+            }
+        }
+        return ticks;
+    }
+
+    static void writeVarint(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarint(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Varint mal formado");
+    }
+
+    // Getters
+    public long getSeed() { return seed; }
+    public GameEngine.Difficulty getDifficulty() { return difficulty; }
+    public GameEngine.World getWorld() { return world; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+    public int getKeyframeInterval() { return keyframeInterval; }
+    public int getTickCount() { return tickCount; }
+    public int getKeyframeCount() { return keyframeOffsets.length; }
+    public int getKeyframeOffset(int index) { return keyframeOffsets[index]; }
+    public int getKeyframeHash(int index) { return keyframeHashes[index]; }
+    byte[] getInputData() { return inputs; }
+}
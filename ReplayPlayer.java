@@ -0,0 +1,115 @@
+// Reproduce las entradas de una grabación paso a paso y comprueba en cada
+// punto clave que el motor llega al mismo estado que en la partida original.
+public class ReplayPlayer {
+
+    private final Replay replay;
+    private final byte[] data;
+    private int offset;
+    private int mask;
+    private int remaining;
+    private int tick;
+    private int desyncTick = -1;
+
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.data = replay.getInputData();
+        rewind();
+    }
+
+    public void rewind() {
+        jumpToKeyframe(0);
+        desyncTick = -1;
+    }
+
+    public boolean hasNext() {
+        return tick < replay.getTickCount();
+    }
+
+    // Entradas del siguiente paso; llamar antes de GameEngine.step()
+    public int nextInputs(GameEngine engine) {
+        verifyKeyframe(engine);
+        return nextInputs();
+    }
+
+    private int nextInputs() {
+        if (remaining == 0) {
+            readRun();
+        }
+        remaining--;
+        tick++;
+        return mask;
+    }
+
+    // Entradas de un paso concreto, leyendo solo desde el punto clave anterior
+    public int inputsAt(int targetTick) {
+        int savedOffset = offset, savedMask = mask, savedRemaining = remaining, savedTick = tick;
+        jumpToKeyframe(Math.min(targetTick / replay.getKeyframeInterval(), replay.getKeyframeCount() - 1));
+        int inputs = 0;
+        while (tick <= targetTick && hasNext()) {
+            inputs = nextInputs();
+        }
+        offset = savedOffset;
+        mask = savedMask;
+        remaining = savedRemaining;
+        tick = savedTick;
+        return inputs;
+    }
+
+    // Reconstruye la partida hasta el paso indicado simulando sin límite de velocidad.
+    // El motor aún no admite instantáneas, así que se resimula desde el inicio;
+    // los puntos clave sirven para detectar una desincronización por el camino.
+    public GameEngine seek(int targetTick) {
+        GameEngine engine = replay.createEngine();
+        rewind();
+        while (tick < targetTick && hasNext() && !engine.isFinished()) {
+            engine.step(nextInputs(engine));
+        }
+        return engine;
+    }
+
+    private void verifyKeyframe(GameEngine engine) {
+        int interval = replay.getKeyframeInterval();
+        if (tick % interval != 0 || desyncTick >= 0) return;
+        int index = tick / interval;
+        if (index < replay.getKeyframeCount() && engine.getStateHash() != replay.getKeyframeHash(index)) {
+            desyncTick = tick;
+        }
+    }
+
+    private void jumpToKeyframe(int index) {
+        offset = replay.getKeyframeCount() > 0 ? replay.getKeyframeOffset(index) : 0;
+        tick = index * replay.getKeyframeInterval();
+        remaining = 0;
+        mask = 0;
+    }
+
+    private void readRun() {
+        int b = nextByte();
+        mask = b & Replay.MASK_BITS;
+        int run = b >>> Replay.RUN_SHIFT;
+        if (run == Replay.INLINE_RUN_MAX) {
+            int extra = 0;
+            for (int shift = 0; ; shift += 7) {
+                int v = nextByte();
+                extra |= (v & 0x7F) << shift;
+                if ((v & 0x80) == 0) break;
+            }
+            remaining = Replay.INLINE_RUN_MAX + 1 + extra;
+        } else {
+            remaining = run + 1;
+        }
+    }
+
+    private int nextByte() {
+        if (offset >= data.length) {
+            throw new IllegalStateException("La grabación se acaba antes del paso " + tick
+                                            + " de " + replay.getTickCount());
+        }
+        return data[offset++] & 0xFF;
+    }
+
+    public int getTick() { return tick; }
+    public boolean isDesynced() { return desyncTick >= 0; }
+    public int getDesyncTick() { return desyncTick; }
+    public Replay getReplay() { return replay; }
+}
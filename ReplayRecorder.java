@@ -0,0 +1,86 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+// Graba las entradas de una partida paso a paso. Se llama a record() justo
+// antes de cada GameEngine.step() con la misma máscara que recibe el motor.
+public class ReplayRecorder {
+
+    private final long seed;
+    private final GameEngine.Difficulty difficulty;
+    private final GameEngine.World world;
+    private final int ticksPerSecond;
+    private final int keyframeInterval;
+
+    private final ByteArrayOutputStream data = new ByteArrayOutputStream(4096);
+    private final DataOutputStream out = new DataOutputStream(data);
+    private int[] keyframeOffsets = new int[64];
+    private int[] keyframeHashes = new int[64];
+    private int keyframeCount = 0;
+
+    private int currentMask = -1;
+    private int runLength = 0;
+    private int tickCount = 0;
+
+    public ReplayRecorder(GameEngine engine, int keyframeSeconds) {
+        this.seed = engine.getSeed();
+        this.difficulty = engine.getDifficulty();
+        this.world = engine.getWorld();
+        this.ticksPerSecond = engine.getTicksPerSecond();
+        this.keyframeInterval = Math.max(1, ticksPerSecond * keyframeSeconds);
+    }
+
+    public void record(GameEngine engine, int inputs) {
+        inputs &= Replay.MASK_BITS;
+        // Los puntos clave siempre empiezan un tramo nuevo para poder saltar a ellos
+        if (tickCount % keyframeInterval == 0) {
+            flushRun();
+            addKeyframe(data.size(), engine.getStateHash());
+        }
+        if (inputs != currentMask) {
+            flushRun();
+            currentMask = inputs;
+        }
+        runLength++;
+        tickCount++;
+    }
+
+    public Replay finish() {
+        flushRun();
+        return new Replay(seed, difficulty, world, ticksPerSecond, keyframeInterval, tickCount,
+                          data.toByteArray(),
+                          Arrays.copyOf(keyframeOffsets, keyframeCount),
+                          Arrays.copyOf(keyframeHashes, keyframeCount));
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    private void addKeyframe(int offset, int hash) {
+        if (keyframeCount == keyframeOffsets.length) {
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+            keyframeHashes = Arrays.copyOf(keyframeHashes, keyframeCount * 2);
+        }
+        keyframeOffsets[keyframeCount] = offset;
+        keyframeHashes[keyframeCount] = hash;
+        keyframeCount++;
+    }
+
+    private void flushRun() {
+        if (runLength == 0) return;
+        try {
+            if (runLength < Replay.INLINE_RUN_MAX + 1) {
+                out.writeByte(currentMask | ((runLength - 1) << Replay.RUN_SHIFT));
+            } else {
+                out.writeByte(currentMask | (Replay.INLINE_RUN_MAX << Replay.RUN_SHIFT));
+                Replay.writeVarint(out, runLength - (Replay.INLINE_RUN_MAX + 1));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // No ocurre con un ByteArrayOutputStream
+        }
+        runLength = 0;
+    }
+}
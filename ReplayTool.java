@@ -0,0 +1,88 @@
+import java.io.File;
+import java.io.IOException;
+
+// Herramienta de consola para grabaciones de partidas.
+//
+//   java ReplayTool play   archivo.skyr            reproduce sin límite y comprueba la sincronía
+//   java ReplayTool seek   archivo.skyr paso       reconstruye el estado en un paso concreto
+//   java ReplayTool record archivo.skyr [DIFICULTAD] [MUNDO] [semilla]
+//                                                  graba una partida del piloto automático
+public class ReplayTool {
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 2) {
+            System.out.println("Uso: ReplayTool play|seek|record archivo.skyr [...]");
+            return;
+        }
+        File file = new File(args[1]);
+        switch (args[0]) {
+            case "play":
+                play(Replay.load(file));
+                break;
+            case "seek":
+                seek(Replay.load(file), Integer.parseInt(args[2]));
+                break;
+            case "record":
+                record(file, args);
+                break;
+            default:
+                System.out.println("Comando desconocido: " + args[0]);
+        }
+    }
+
+    private static void play(Replay replay) {
+        long start = System.nanoTime();
+        GameEngine engine = replay.createEngine();
+        ReplayPlayer player = new ReplayPlayer(replay);
+        while (player.hasNext() && !engine.isFinished()) {
+            engine.step(player.nextInputs(engine));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double gameSeconds = engine.getTick() / (double) replay.getTicksPerSecond();
+
+        System.out.printf("Semilla %d, %s, %s%n", replay.getSeed(), replay.getDifficulty(), replay.getWorld());
+        System.out.printf("Pasos: %d (%.1f s de juego) en %.3f s -> %.0fx tiempo real%n",
+            engine.getTick(), gameSeconds, seconds, gameSeconds / seconds);
+        System.out.printf("Puntuación: %d, vidas: %d, %s%n", engine.getScore(),
+            engine.getLevelManager().getLives(),
+            engine.isGameComplete() ? "completada" : engine.isGameOver() ? "game over" : "sin terminar");
+        if (player.isDesynced()) {
+            System.out.println("DESINCRONIZADA en el paso " + player.getDesyncTick());
+        } else {
+            System.out.println("Sincronía verificada en " + replay.getKeyframeCount() + " puntos clave");
+        }
+    }
+
+    private static void seek(Replay replay, int tick) {
+        long start = System.nanoTime();
+        ReplayPlayer player = new ReplayPlayer(replay);
+        GameEngine engine = player.seek(tick);
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("Paso %d alcanzado en %.1f ms: puntuación %d, jugador (%d, %d), %d enemigos, entradas 0x%02X%n",
+            engine.getTick(), millis, engine.getScore(), engine.getPlayer().getX(), engine.getPlayer().getY(),
+            engine.getEnemies().size(), player.inputsAt(tick));
+        if (player.isDesynced()) {
+            System.out.println("DESINCRONIZADA en el paso " + player.getDesyncTick());
+        }
+    }
+
+    private static void record(File file, String[] args) throws IOException {
+        GameEngine.Difficulty difficulty = args.length > 2
+            ? GameEngine.Difficulty.valueOf(args[2]) : GameEngine.Difficulty.NORMAL;
+        GameEngine.World world = args.length > 3
+            ? GameEngine.World.valueOf(args[3]) : GameEngine.World.CLOUD_KINGDOM;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : GameRandom.newSeed();
+        int ticksPerSecond = args.length > 5 ? Integer.parseInt(args[5]) : TickRate.DEFAULT;
+
+        GameEngine engine = new GameEngine(difficulty, world, seed, SpawnTuning.defaults(difficulty), ticksPerSecond);
+        ReplayRecorder recorder = new ReplayRecorder(engine, 10);
+        while (!engine.isFinished()) {
+            int inputs = HeadlessSimulator.scriptedInputs(engine);
+            recorder.record(engine, inputs);
+            engine.step(inputs);
+        }
+        recorder.finish().save(file);
+        System.out.printf("Grabados %d pasos en %s (%d bytes)%n", recorder.getTickCount(), file, file.length());
+    }
+}
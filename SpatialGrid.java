@@ -0,0 +1,204 @@
+import java.util.Arrays;
+
+// Rejilla uniforme para la fase amplia de las colisiones. Se reconstruye en
+// cada paso a partir de las listas del motor: cada elemento guarda su
+// rectángulo, su tipo y su índice en la lista de origen, y se enlaza en todas
+// las celdas que toca. Cada celda tiene una lista por tipo, así una consulta
+// solo recorre los tipos que pide. Las listas están sobre arrays de enteros,
+// así que reconstruirla no reserva memoria salvo cuando crece el número de
+// elementos.
+//
+// La rejilla cubre una ventana alrededor de la cámara; lo que queda fuera cae
+// en las celdas del borde, con lo que las consultas siguen siendo exactas.
+public class SpatialGrid {
+
+    // Tipos de elemento (máscara de bits para las consultas)
+    public static final int OBSTACLE = 1;
+    public static final int STORM_COLUMN = 1 << 1;
+    public static final int TURBINE = 1 << 2;
+    public static final int ENEMY = 1 << 3;
+    public static final int ENEMY_SHOT = 1 << 4;
+    public static final int POWER_UP = 1 << 5;
+    private static final int KINDS = 6;
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private int originX;
+    // Primer nodo de cada celda y tipo: cellHead[tipo * celdas + celda] (-1 = vacía)
+    private final int[] cellHead;
+    private final int cells;
+
+    // Elementos, en orden de inserción
+    private int itemCount;
+    private int[] itemKind = new int[64];
+    private int[] itemIndex = new int[64];
+    private int[] itemX = new int[64];
+    private int[] itemY = new int[64];
+    private int[] itemWidth = new int[64];
+    private int[] itemHeight = new int[64];
+    // Última consulta que devolvió cada elemento, para no repetirlo si ocupa varias celdas
+    private int[] itemStamp = new int[64];
+    private int queryStamp;
+
+    // Nodos de las listas de cada celda
+    private int nodeCount;
+    private int[] nodeItem = new int[256];
+    private int[] nodeNext = new int[256];
+
+    // Resultado de la última consulta (identificadores de elemento)
+    private int[] results = new int[32];
+    private int resultCount;
+
+    public SpatialGrid(int cellSize, int width, int height) {
+        this.cellSize = cellSize;
+        this.columns = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.cells = columns * rows;
+        this.cellHead = new int[cells * KINDS];
+        Arrays.fill(cellHead, -1);
+    }
+
+    // Vacía la rejilla; originX es la x de mundo de su borde izquierdo
+    public void clear(int originX) {
+        this.originX = originX;
+        Arrays.fill(cellHead, -1);
+        itemCount = 0;
+        nodeCount = 0;
+    }
+
+    // Inserta la caja de colisión del objeto
+    public void insert(int kind, int index, GameObject object) {
+        insert(kind, index, object.getHitboxX(), object.getHitboxY(),
+               object.getHitboxWidth(), object.getHitboxHeight());
+    }
+
+    // Inserta la caja que cubre el recorrido del objeto en el paso, para
+    // consultas que después comprueban el impacto con GameObject.timeOfImpact
+    public void insertSwept(int kind, int index, GameObject object) {
+        insert(kind, index, object.getSweptX(), object.getSweptY(),
+               object.getSweptWidth(), object.getSweptHeight());
+    }
+
+    public void insert(int kind, int index, int x, int y, int width, int height) {
+        // Un rectángulo vacío no colisiona con nada (igual que Rectangle.intersects)
+        if (width <= 0 || height <= 0) return;
+        if (itemCount == itemKind.length) growItems();
+        int item = itemCount++;
+        itemKind[item] = kind;
+        itemIndex[item] = index;
+        itemX[item] = x;
+        itemY[item] = y;
+        itemWidth[item] = width;
+        itemHeight[item] = height;
+        itemStamp[item] = 0;
+
+        int c0 = column(x);
+        int c1 = column(x + width - 1);
+        int r0 = row(y);
+        int r1 = row(y + height - 1);
+        int base = Integer.numberOfTrailingZeros(kind) * cells;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (nodeCount == nodeItem.length) growNodes();
+                int cell = base + r * columns + c;
+                nodeItem[nodeCount] = item;
+                nodeNext[nodeCount] = cellHead[cell];
+                cellHead[cell] = nodeCount++;
+            }
+        }
+    }
+
+    // Busca los elementos de los tipos indicados que se solapan con el
+    // rectángulo. Devuelve cuántos hay; se leen con resultIndex y resultKind,
+    // ordenados por orden de inserción.
+    public int query(int x, int y, int width, int height, int kinds) {
+        resultCount = 0;
+        if (width <= 0 || height <= 0) return 0;
+        if (++queryStamp == 0) {
+            Arrays.fill(itemStamp, 0);
+            queryStamp = 1;
+        }
+
+        int c0 = column(x);
+        int c1 = column(x + width - 1);
+        int r0 = row(y);
+        int r1 = row(y + height - 1);
+        for (int remaining = kinds; remaining != 0; remaining &= remaining - 1) {
+            int base = Integer.numberOfTrailingZeros(remaining) * cells;
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    for (int node = cellHead[base + r * columns + c]; node != -1; node = nodeNext[node]) {
+                        int item = nodeItem[node];
+                        if (itemStamp[item] == queryStamp) continue;
+                        itemStamp[item] = queryStamp;
+                        if (itemX[item] < x + width && x < itemX[item] + itemWidth[item] &&
+                            itemY[item] < y + height && y < itemY[item] + itemHeight[item]) {
+                            addResult(item);
+                        }
+                    }
+                }
+            }
+        }
+        sortResults();
+        return resultCount;
+    }
+
+    // Índice en su lista de origen del resultado i de la última consulta
+    public int resultIndex(int i) {
+        return itemIndex[results[i]];
+    }
+
+    public int resultKind(int i) {
+        return itemKind[results[i]];
+    }
+
+    public int size() {
+        return itemCount;
+    }
+
+    private int column(int x) {
+        int c = Math.floorDiv(x - originX, cellSize);
+        return c < 0 ? 0 : (c >= columns ? columns - 1 : c);
+    }
+
+    private int row(int y) {
+        int r = Math.floorDiv(y, cellSize);
+        return r < 0 ? 0 : (r >= rows ? rows - 1 : r);
+    }
+
+    private void addResult(int item) {
+        if (resultCount == results.length) results = Arrays.copyOf(results, resultCount * 2);
+        results[resultCount++] = item;
+    }
+
+    // Pocos resultados por consulta: inserción directa
+    private void sortResults() {
+        for (int i = 1; i < resultCount; i++) {
+            int item = results[i];
+            int j = i - 1;
+            while (j >= 0 && results[j] > item) {
+                results[j + 1] = results[j];
+                j--;
+            }
+            results[j + 1] = item;
+        }
+    }
+
+    private void growItems() {
+        int capacity = itemKind.length * 2;
+        itemKind = Arrays.copyOf(itemKind, capacity);
+        itemIndex = Arrays.copyOf(itemIndex, capacity);
+        itemX = Arrays.copyOf(itemX, capacity);
+        itemY = Arrays.copyOf(itemY, capacity);
+        itemWidth = Arrays.copyOf(itemWidth, capacity);
+        itemHeight = Arrays.copyOf(itemHeight, capacity);
+        itemStamp = Arrays.copyOf(itemStamp, capacity);
+    }
+
+    private void growNodes() {
+        int capacity = nodeItem.length * 2;
+        nodeItem = Arrays.copyOf(nodeItem, capacity);
+        nodeNext = Arrays.copyOf(nodeNext, capacity);
+    }
+}
@@ -0,0 +1,75 @@
+// Parámetros de aparición que se pueden ajustar sin tocar Level: escalas sobre
+// las tasas base de cada nivel y los multiplicadores de obstáculos/enemigos
+// antes y después del 50% del recorrido. Los valores por defecto reproducen
+// el comportamiento original del juego.
+public class SpawnTuning {
+
+    private final double obstacleRateScale;
+    private final double enemyRateScale;
+    private final double powerUpRateScale;
+    private final double maxEnemiesScale;
+    private final double earlyMultiplier;
+    private final double lateMultiplier;
+
+    public SpawnTuning(double obstacleRateScale, double enemyRateScale, double powerUpRateScale,
+                       double maxEnemiesScale, double earlyMultiplier, double lateMultiplier) {
+        this.obstacleRateScale = obstacleRateScale;
+        this.enemyRateScale = enemyRateScale;
+        this.powerUpRateScale = powerUpRateScale;
+        this.maxEnemiesScale = maxEnemiesScale;
+        this.earlyMultiplier = earlyMultiplier;
+        this.lateMultiplier = lateMultiplier;
+    }
+
+    public static SpawnTuning defaults(GameEngine.Difficulty difficulty) {
+        if (difficulty == GameEngine.Difficulty.HARD) {
+            return new SpawnTuning(1.0, 1.0, 1.0, 1.0, 8.0, 14.0);
+        }
+        return new SpawnTuning(1.0, 1.0, 1.0, 1.0, 1.0, 3.0);
+    }
+
+    // Misma configuración con obstáculos y enemigos escalados por un factor
+    public SpawnTuning withDensity(double factor) {
+        return new SpawnTuning(obstacleRateScale * factor, enemyRateScale * factor, powerUpRateScale,
+                               maxEnemiesScale, earlyMultiplier, lateMultiplier);
+    }
+
+    // Misma configuración con uno de los demás parámetros escalado por un factor
+    public SpawnTuning withPowerUpRate(double factor) {
+        return new SpawnTuning(obstacleRateScale, enemyRateScale, powerUpRateScale * factor,
+                               maxEnemiesScale, earlyMultiplier, lateMultiplier);
+    }
+
+    public SpawnTuning withMaxEnemies(double factor) {
+        return new SpawnTuning(obstacleRateScale, enemyRateScale, powerUpRateScale,
+                               maxEnemiesScale * factor, earlyMultiplier, lateMultiplier);
+    }
+
+    public SpawnTuning withEarlyMultiplier(double factor) {
+        return new SpawnTuning(obstacleRateScale, enemyRateScale, powerUpRateScale,
+                               maxEnemiesScale, earlyMultiplier * factor, lateMultiplier);
+    }
+
+    public SpawnTuning withLateMultiplier(double factor) {
+        return new SpawnTuning(obstacleRateScale, enemyRateScale, powerUpRateScale,
+                               maxEnemiesScale, earlyMultiplier, lateMultiplier * factor);
+    }
+
+    // Multiplicador de obstáculos y enemigos según el avance del nivel
+    public double multiplierAt(double completion) {
+        return completion >= 50.0 ? lateMultiplier : earlyMultiplier;
+    }
+
+    public double getObstacleRateScale() { return obstacleRateScale; }
+    public double getEnemyRateScale() { return enemyRateScale; }
+    public double getPowerUpRateScale() { return powerUpRateScale; }
+    public double getMaxEnemiesScale() { return maxEnemiesScale; }
+    public double getEarlyMultiplier() { return earlyMultiplier; }
+    public double getLateMultiplier() { return lateMultiplier; }
+
+    @Override
+    public String toString() {
+        return String.format("obstáculos x%.3f, enemigos x%.3f, power-ups x%.3f, máx. enemigos x%.2f, multiplicador %.1f/%.1f",
+            obstacleRateScale, enemyRateScale, powerUpRateScale, maxEnemiesScale, earlyMultiplier, lateMultiplier);
+    }
+}
@@ -0,0 +1,198 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+// Atlas de sprites: cada fotograma de cada tipo de objeto se dibuja una vez,
+// con sus primitivas vectoriales y a la escala de dibujo actual, en una
+// página compartida (imagen translúcida compatible con la pantalla); después
+// dibujarlo es un drawImage de un trozo de la página, cueste lo que cueste la
+// figura.
+//
+// Los objetos declaran sus fotogramas con un Sheet (caja respecto a su
+// posición, número de fotogramas y cómo pintar cada uno) y llaman a
+// Sheet.draw desde su draw. Los fotogramas se rasterizan la primera vez que
+// se piden. Al cambiar la escala (GameRenderer llama a useScale en cada
+// fotograma) se empieza un atlas nuevo y los Sheet se vuelven a rasterizar.
+//
+// Solo se usa desde el hilo que dibuja.
+public final class SpriteAtlas {
+
+    // Pinta el fotograma frame con el objeto en (0, 0)
+    public interface Painter {
+        void paint(Graphics2D g2d, int frame);
+    }
+
+    private static final int PAGE_SIZE = 1024;
+    // Separación entre sprites, para que al girarlos no se cuele el vecino
+    private static final int GAP = 2;
+    // Transparencias ya creadas (AlphaComposite.getInstance crea una cada vez)
+    private static final int FADE_STEPS = 32;
+    private static final AlphaComposite[] FADES = new AlphaComposite[FADE_STEPS + 1];
+
+    static {
+        for (int i = 0; i <= FADE_STEPS; i++) {
+            FADES[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) i / FADE_STEPS);
+        }
+    }
+
+    private static SpriteAtlas current = new SpriteAtlas(1.0);
+
+    private final double scale;
+    private BufferedImage[] pages = new BufferedImage[2];
+    private int pageCount;
+    // Estante en curso de la última página
+    private int shelfX, shelfY, shelfHeight;
+
+    // Sprites: página y rectángulo en píxeles
+    private int[] page = new int[64];
+    private int[] srcX = new int[64];
+    private int[] srcY = new int[64];
+    private int[] srcW = new int[64];
+    private int[] srcH = new int[64];
+    private int count;
+
+    private SpriteAtlas(double scale) {
+        this.scale = scale;
+    }
+
+    // Atlas para la escala con que se va a dibujar
+    public static SpriteAtlas useScale(double scale) {
+        if (current.scale != scale) {
+            current = new SpriteAtlas(scale);
+        }
+        return current;
+    }
+
+    public static SpriteAtlas current() {
+        return current;
+    }
+
+    // Transparencia alpha (0..1) redondeada a 1/32
+    public static AlphaComposite fade(double alpha) {
+        int i = (int) Math.round(alpha * FADE_STEPS);
+        return FADES[Math.max(0, Math.min(FADE_STEPS, i))];
+    }
+
+    // Rasteriza un sprite de width x height unidades cuya esquina está en
+    // (originX, originY) respecto al objeto; devuelve su número
+    int add(int originX, int originY, int width, int height, Painter painter, int frame) {
+        int w = Math.max(1, (int) Math.ceil(width * scale));
+        int h = Math.max(1, (int) Math.ceil(height * scale));
+        int p = place(w, h);
+
+        Graphics2D g2d = pages[p].createGraphics();
+        g2d.translate(shelfX, shelfY);
+        g2d.clipRect(0, 0, w, h);
+        g2d.scale(scale, scale);
+        g2d.translate(-originX, -originY);
+        painter.paint(g2d, frame);
+        g2d.dispose();
+
+        if (count == page.length) {
+            int n = count * 2;
+            page = Arrays.copyOf(page, n);
+            srcX = Arrays.copyOf(srcX, n);
+            srcY = Arrays.copyOf(srcY, n);
+            srcW = Arrays.copyOf(srcW, n);
+            srcH = Arrays.copyOf(srcH, n);
+        }
+        page[count] = p;
+        srcX[count] = shelfX;
+        srcY[count] = shelfY;
+        srcW[count] = w;
+        srcH[count] = h;
+        shelfX += w + GAP;
+        return count++;
+    }
+
+    // Hueco de w x h píxeles: en el estante actual, en uno nuevo debajo o en
+    // una página nueva. Deja shelfX/shelfY en la esquina del hueco.
+    private int place(int w, int h) {
+        if (pageCount > 0) {
+            BufferedImage last = pages[pageCount - 1];
+            if (shelfX + w > last.getWidth()) {
+                shelfY += shelfHeight + GAP;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            if (shelfX + w <= last.getWidth() && shelfY + h <= last.getHeight()) {
+                shelfHeight = Math.max(shelfHeight, h);
+                return pageCount - 1;
+            }
+        }
+        // Página nueva (más grande si el sprite no cabe en una normal)
+        if (pageCount == pages.length) pages = Arrays.copyOf(pages, pageCount * 2);
+        pages[pageCount] = createImage(Math.max(PAGE_SIZE, w), Math.max(PAGE_SIZE, h));
+        shelfX = 0;
+        shelfY = 0;
+        shelfHeight = h;
+        return pageCount++;
+    }
+
+    // Imagen translúcida del tipo más rápido de dibujar en pantalla
+    static BufferedImage createImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+            return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    // Dibuja el sprite ocupando (x, y, width, rows) en unidades de juego; con
+    // rows < alto del sprite solo se dibujan sus primeras filas
+    void draw(Graphics2D g2d, int sprite, int x, int y, int width, int rows, int height) {
+        int sx = srcX[sprite];
+        int sy = srcY[sprite];
+        int sh = rows == height ? srcH[sprite] : (int) Math.round(srcH[sprite] * (double) rows / height);
+        g2d.drawImage(pages[page[sprite]], x, y, x + width, y + rows,
+                      sx, sy, sx + srcW[sprite], sy + sh, null);
+    }
+
+    public double getScale() { return scale; }
+    public int getSpriteCount() { return count; }
+    public int getPageCount() { return pageCount; }
+
+    // Fotogramas de un tipo de objeto, todos con la misma caja
+    public static final class Sheet {
+        private final int originX;
+        private final int originY;
+        private final int width;
+        private final int height;
+        private final Painter painter;
+        private final int[] sprites;
+        // Atlas en que están rasterizados los fotogramas de sprites
+        private SpriteAtlas atlas;
+
+        public Sheet(int originX, int originY, int width, int height, int frames, Painter painter) {
+            this.originX = originX;
+            this.originY = originY;
+            this.width = width;
+            this.height = height;
+            this.painter = painter;
+            this.sprites = new int[frames];
+        }
+
+        // Fotograma frame del objeto en (x, y)
+        public void draw(Graphics2D g2d, int frame, int x, int y) {
+            drawRows(g2d, frame, x, y, height);
+        }
+
+        // Solo las primeras rows filas (en unidades de juego) del fotograma
+        public void drawRows(Graphics2D g2d, int frame, int x, int y, int rows) {
+            if (rows <= 0) return;
+            SpriteAtlas target = current;
+            if (atlas != target) {
+                Arrays.fill(sprites, -1);
+                atlas = target;
+            }
+            int sprite = sprites[frame];
+            if (sprite < 0) {
+                sprite = sprites[frame] = target.add(originX, originY, width, height, painter, frame);
+            }
+            target.draw(g2d, sprite, x + originX, y + originY, width, Math.min(rows, height), height);
+        }
+
+        public int getFrameCount() { return sprites.length; }
+    }
+}
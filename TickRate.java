@@ -0,0 +1,41 @@
+// Frecuencia de la simulación y conversiones de unidades. Las velocidades se
+// expresan en píxeles por segundo y los tiempos en segundos; los valores que
+// el juego definía "por fotograma" se refieren a la frecuencia de referencia
+// de 60 Hz y se convierten aquí para que la partida se comporte igual a
+// 30, 60, 120 o 240 pasos por segundo.
+public final class TickRate {
+
+    public static final int REFERENCE = 60;
+    public static final int DEFAULT = REFERENCE;
+    public static final int[] SUPPORTED = { 30, 60, 120, 240 };
+
+    private TickRate() {}
+
+    public static boolean isSupported(int ticksPerSecond) {
+        for (int rate : SUPPORTED) {
+            if (rate == ticksPerSecond) return true;
+        }
+        return false;
+    }
+
+    public static int validate(int ticksPerSecond) {
+        if (!isSupported(ticksPerSecond)) {
+            throw new IllegalArgumentException("Frecuencia de simulación no soportada: " + ticksPerSecond
+                + " (usa 30, 60, 120 o 240)");
+        }
+        return ticksPerSecond;
+    }
+
+    // Probabilidad por paso equivalente a una probabilidad por paso de 60 Hz:
+    // misma frecuencia media de sucesos por segundo a cualquier frecuencia
+    public static double chancePerTick(double chanceAtReference, double dt) {
+        if (dt == 1.0 / REFERENCE) return chanceAtReference;
+        return 1.0 - Math.pow(1.0 - chanceAtReference, dt * REFERENCE);
+    }
+
+    // Factor de amortiguación por paso equivalente a uno aplicado a 60 Hz
+    public static double decayPerTick(double factorAtReference, double dt) {
+        if (dt == 1.0 / REFERENCE) return factorAtReference;
+        return Math.pow(factorAtReference, dt * REFERENCE);
+    }
+}
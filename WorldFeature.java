@@ -3,11 +3,24 @@ import java.awt.*;
 public class WorldFeature {
     public enum Type { ROCK_SPIRE, CRYSTAL_SPIRE_BG, CITY_TOWER, CITY_TURBINE_BG }
 
+    // Capas de profundidad: el parallax se redondea al centro de una de
+    // LAYERS franjas de LAYER_STEP a partir de NEAREST_PARALLAX, y todos los
+    // elementos de una capa se mueven juntos (ParallaxBackground la dibuja
+    // como una sola tira)
+    public static final int LAYERS = 4;
+    private static final double FARTHEST_PARALLAX = 0.3;
+    private static final double LAYER_STEP = 0.1;
+
+    // x está en la capa del elemento: en pantalla ocupa x - cameraX * parallax
     public int x, y, width, height;
     private Type type;
     private float opacity;
     private double parallax;
     private Color baseColor;
+    // Transparencia y colores de los detalles, creados una vez
+    private final AlphaComposite composite;
+    private final Color detailColor;
+    private final Color accentColor;
 
     public WorldFeature(int x, int y, int width, int height, Type type, double parallax, Color color, float opacity) {
         this.x = x;
@@ -18,19 +31,50 @@ public class WorldFeature {
         this.parallax = parallax; // 0.2–0.8: más pequeño = más lejos
         this.baseColor = color;
         this.opacity = opacity;
+        this.composite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity);
+        switch (type) {
+            case ROCK_SPIRE: detailColor = new Color(105, 75, 50, (int)(opacity*255)); break;
+            case CRYSTAL_SPIRE_BG: detailColor = new Color(255, 255, 255, (int)(opacity*180)); break;
+            case CITY_TOWER: detailColor = new Color(220, 220, 240, (int)(opacity*180)); break;
+            default: detailColor = new Color(200, 210, 230, (int)(opacity*160));
+        }
+        this.accentColor = new Color(255, 200, 0, (int)(opacity*200));
+    }
+
+    public double getParallax() {
+        return parallax;
+    }
+
+    // Capa 0 (la más lejana) a LAYERS - 1
+    public int getLayer() {
+        return layerOf(parallax);
+    }
+
+    public static int layerOf(double parallax) {
+        int layer = (int) ((parallax - FARTHEST_PARALLAX) / LAYER_STEP);
+        return Math.max(0, Math.min(LAYERS - 1, layer));
+    }
+
+    public static double layerParallax(int layer) {
+        return FARTHEST_PARALLAX + (layer + 0.5) * LAYER_STEP;
+    }
+
+    // Parallax de la capa que le corresponde
+    public static double snapParallax(double parallax) {
+        return layerParallax(layerOf(parallax));
     }
 
-    public void update(double scrollSpeed) {
-        x -= scrollSpeed * parallax;
+    public double getScreenX(double cameraX) {
+        return x - cameraX * parallax;
     }
 
-    public boolean isOffScreen() {
-        return x + width < -50;
+    public boolean isOffScreen(double cameraX) {
+        return getScreenX(cameraX) + width < -50;
     }
 
     public void draw(Graphics2D g2d) {
         Composite prev = g2d.getComposite();
-        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity));
+        g2d.setComposite(composite);
         g2d.setColor(baseColor);
         switch (type) {
             case ROCK_SPIRE:
@@ -55,7 +99,7 @@ public class WorldFeature {
         int[] xs = { x, x + baseW/2, x + baseW };
         int[] ys = { y + h, y, y + h };
         g.fillPolygon(xs, ys, 3);
-        g.setColor(new Color(105, 75, 50, (int)(opacity*255)));
+        g.setColor(detailColor);
         g.drawLine(x + baseW/3, y + h - 10, x + baseW/2, y + 10);
         g.drawLine(x + baseW*2/3, y + h - 15, x + baseW/2, y + 10);
     }
@@ -70,19 +114,19 @@ public class WorldFeature {
         p.addPoint(x, y + h/3);
         g.fillPolygon(p);
         // brillo
-        g.setColor(new Color(255, 255, 255, (int)(opacity*180)));
+        g.setColor(detailColor);
         g.drawLine(x + width/2, y + 5, x + width*3/4, y + h/3);
         g.drawLine(x + width/2, y + 5, x + width/4, y + h/3);
     }
 
     private void drawCityTower(Graphics2D g) {
         g.fillRect(x, y, width, height);
-        g.setColor(new Color(220, 220, 240, (int)(opacity*180)));
+        g.setColor(detailColor);
         for (int i = 0; i < height; i += 18) {
             g.drawLine(x + 6, y + i, x + width - 6, y + i);
         }
         // antena
-        g.setColor(new Color(255, 200, 0, (int)(opacity*200)));
+        g.setColor(accentColor);
         g.fillRect(x + width/2 - 2, y - 10, 4, 10);
     }
 
@@ -90,7 +134,7 @@ public class WorldFeature {
         int cx = x + width/2;
         int cy = y + height/2;
         g.fillOval(cx - 14, cy - 14, 28, 28);
-        g.setColor(new Color(200, 210, 230, (int)(opacity*160)));
+        g.setColor(detailColor);
         g.fillRect(cx - 4, cy - 26, 8, 52);
         g.fillRect(cx - 26, cy - 4, 52, 8);
     }
@@ -0,0 +1,152 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Arnés de microbenchmarks al estilo de JMH, sin dependencias: iteraciones de
+// calentamiento y de medida de duración fija, resultado en ns/op con su
+// desviación entre iteraciones, y bytes reservados por operación medidos con
+// el contador de memoria reservada por hilo de la JVM (lo mismo que informa
+// gc.alloc.rate.norm en el perfilador GC de JMH).
+//
+// Propiedades: -Dbench.warmup=5 -Dbench.iterations=5 -Dbench.time=1000 (ms)
+//              -Dbench.filter=expresión regular sobre el nombre
+public class Bench {
+
+    // Operación medida
+    public interface Op {
+        void run(Blackhole bh);
+    }
+
+    // Preparación antes de cada invocación, fuera del tiempo medido
+    public interface Setup {
+        void run();
+    }
+
+    private static class Entry {
+        final String name;
+        final Setup setup;
+        final Op op;
+
+        Entry(String name, Setup setup, Op op) {
+            this.name = name;
+            this.setup = setup;
+            this.op = op;
+        }
+    }
+
+    private final int warmupIterations = Integer.getInteger("bench.warmup", 5);
+    private final int measurementIterations = Integer.getInteger("bench.iterations", 5);
+    private final long iterationNanos = Integer.getInteger("bench.time", 1000) * 1_000_000L;
+    private final Pattern filter = Pattern.compile(System.getProperty("bench.filter", ".*"));
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Blackhole blackhole = new Blackhole();
+
+    public void add(String name, Op op) {
+        entries.add(new Entry(name, null, op));
+    }
+
+    // Para operaciones que modifican su estado: la preparación se repite antes
+    // de cada invocación y solo se cronometra la operación (como
+    // @Setup(Level.Invocation) en JMH, con el coste extra de llamar a nanoTime)
+    public void add(String name, Setup setup, Op op) {
+        entries.add(new Entry(name, setup, op));
+    }
+
+    public void runAll() {
+        threads.setThreadAllocatedMemoryEnabled(true);
+        System.out.printf("Calentamiento %d x %d ms, medida %d x %d ms%n%n",
+            warmupIterations, iterationNanos / 1_000_000,
+            measurementIterations, iterationNanos / 1_000_000);
+        System.out.printf("%-50s %12s %10s %12s %10s%n", "Benchmark", "ns/op", "±", "B/op", "MB/s");
+        for (Entry entry : entries) {
+            if (filter.matcher(entry.name).find()) {
+                run(entry);
+            }
+        }
+        System.out.println();
+        System.out.println("(sumidero " + blackhole.result() + ")");
+    }
+
+    private void run(Entry entry) {
+        int batch = calibrateBatch(entry);
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(entry, batch, new long[3]);
+        }
+
+        double[] nanosPerOp = new double[measurementIterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        long totalNanos = 0;
+        long[] result = new long[3];
+        for (int i = 0; i < measurementIterations; i++) {
+            iteration(entry, batch, result);
+            nanosPerOp[i] = result[1] / (double) result[0];
+            totalOps += result[0];
+            totalNanos += result[1];
+            totalBytes += result[2];
+        }
+
+        double mean = 0;
+        for (double v : nanosPerOp) mean += v;
+        mean /= nanosPerOp.length;
+        double variance = 0;
+        for (double v : nanosPerOp) variance += (v - mean) * (v - mean);
+        double deviation = nanosPerOp.length > 1 ? Math.sqrt(variance / (nanosPerOp.length - 1)) : 0;
+        double bytesPerOp = totalBytes / (double) totalOps;
+        double megabytesPerSecond = totalBytes / (totalNanos / 1e9) / (1024 * 1024);
+
+        System.out.printf("%-50s %12.1f %10.1f %12.1f %10.1f%n",
+            entry.name, mean, deviation, bytesPerOp, megabytesPerSecond);
+    }
+
+    // Agrupa invocaciones hasta que un lote dure al menos 100 µs, para que la
+    // lectura del reloj no pese en operaciones muy cortas
+    private int calibrateBatch(Entry entry) {
+        if (entry.setup != null) return 1;
+        int batch = 1;
+        while (batch < (1 << 24)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) entry.op.run(blackhole);
+            if (System.nanoTime() - start >= 100_000) break;
+            batch <<= 1;
+        }
+        return batch;
+    }
+
+    // result: [operaciones, nanosegundos medidos, bytes reservados]
+    private void iteration(Entry entry, int batch, long[] result) {
+        long ops = 0;
+        long measured = 0;
+        long bytes = 0;
+        long end = System.nanoTime() + iterationNanos;
+        if (entry.setup == null) {
+            long bytesStart = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            long now;
+            do {
+                for (int i = 0; i < batch; i++) entry.op.run(blackhole);
+                ops += batch;
+                now = System.nanoTime();
+            } while (now < end);
+            measured = now - start;
+            bytes = threads.getCurrentThreadAllocatedBytes() - bytesStart;
+        } else {
+            do {
+                entry.setup.run();
+                long bytesStart = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                entry.op.run(blackhole);
+                measured += System.nanoTime() - start;
+                bytes += threads.getCurrentThreadAllocatedBytes() - bytesStart;
+                ops++;
+            } while (System.nanoTime() < end);
+        }
+        result[0] = ops;
+        result[1] = measured;
+        result[2] = bytes;
+    }
+}
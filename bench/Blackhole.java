@@ -0,0 +1,21 @@
+// Sumidero para los resultados de las operaciones medidas: evita que el JIT
+// elimine como código muerto un cálculo cuyo resultado nadie usa.
+public final class Blackhole {
+
+    private int intSink;
+    private long longSink;
+    private double doubleSink;
+    private Object objectSink;
+
+    public void consume(int value) { intSink ^= value; }
+    public void consume(long value) { longSink ^= value; }
+    public void consume(double value) { doubleSink += value; }
+    public void consume(boolean value) { intSink ^= value ? 1 : 0; }
+    public void consume(Object value) { objectSink = value; }
+
+    // Se imprime al final para que los sumideros se consideren usados
+    public int result() {
+        return intSink ^ Long.hashCode(longSink) ^ Double.hashCode(doubleSink)
+            ^ System.identityHashCode(objectSink);
+    }
+}
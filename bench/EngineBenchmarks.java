@@ -0,0 +1,299 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+// Benchmarks de las partes críticas del motor y del dibujo con cantidades de
+// objetos realistas de una partida HARD (24 enemigos, 200 proyectiles,
+// 60 obstáculos). El mundo se genera siempre con la misma semilla.
+//
+// Compilar y ejecutar desde la carpeta del proyecto:
+//   javac -encoding UTF-8 -d bin *.java
+//   javac -encoding UTF-8 -cp bin -d bench/bin bench/*.java
+//   java -Djava.awt.headless=true -cp bin:bench/bin EngineBenchmarks
+// (en Windows, ejecutar_benchmarks.bat hace lo mismo)
+public class EngineBenchmarks {
+
+    static final int ENEMIES = 24;
+    static final int PROJECTILES = 200;
+    static final int OBSTACLES = 60;
+    static final int POWER_UPS = 6;
+    static final int BULLET_HELL = 10_000;
+    static final long SEED = 42L;
+
+    // Partida con un mundo poblado y una copia de las posiciones para
+    // devolverlo exactamente al mismo estado antes de cada invocación
+    static class WorldFixture {
+        final GameEngine engine;
+        private final List<GameObject> objects = new ArrayList<>();
+        private final int[] xs;
+        private final int[] ys;
+        private final boolean[] active;
+        private final Obstacle[] obstacles;
+        private final Enemy[] enemies;
+        private final ProjectileStore projectiles = new ProjectileStore();
+        private final PowerUp[] powerUps;
+
+        WorldFixture(GameEngine.Difficulty difficulty, GameEngine.World world) {
+            this(difficulty, world, 1);
+        }
+
+        // scale multiplica todas las cantidades, para ver cómo crece el coste
+        WorldFixture(GameEngine.Difficulty difficulty, GameEngine.World world, int scale) {
+            this(difficulty, world, scale, 0);
+        }
+
+        // bullets: disparos enemigos extra en anillos, como en una fase de jefe
+        WorldFixture(GameEngine.Difficulty difficulty, GameEngine.World world, int scale, int bullets) {
+            engine = new GameEngine(difficulty, world, SEED);
+            SplittableRandom random = new SplittableRandom(SEED);
+            LevelManager levels = engine.getLevelManager();
+            int playerRight = engine.getPlayer().getX() + engine.getPlayer().getWidth();
+
+            // Todo empieza a la derecha del jugador para que las colisiones
+            // recorran todas las parejas sin terminar la partida
+            for (int i = 0; i < OBSTACLES * scale; i++) {
+                int x = playerRight + 120 + i * 1400 / (OBSTACLES * scale);
+                int y = 50 + random.nextInt(GameEngine.HEIGHT - 150);
+                engine.getObstacles().add((Obstacle) levels.generateObstacle(x, y));
+            }
+            for (int i = 0; i < ENEMIES * scale; i++) {
+                int x = playerRight + 150 + random.nextInt(GameEngine.WIDTH);
+                int y = 120 + random.nextInt(GameEngine.HEIGHT - 240);
+                engine.getEnemies().add(levels.generateEnemy(x, y));
+            }
+            for (int i = 0; i < PROJECTILES * scale; i++) {
+                boolean enemyShot = i % 3 == 0;
+                int x = playerRight + 60 + random.nextInt(GameEngine.WIDTH - playerRight);
+                int y = random.nextInt(GameEngine.HEIGHT);
+                engine.getProjectiles().spawn(x, y, enemyShot ? -480 : 600, enemyShot);
+            }
+            fillWithRings(engine.getProjectiles(), bullets, random);
+            PowerUp.Type[] types = PowerUp.Type.values();
+            for (int i = 0; i < POWER_UPS * scale; i++) {
+                int x = playerRight + 200 + random.nextInt(GameEngine.WIDTH);
+                int y = 50 + random.nextInt(GameEngine.HEIGHT - 100);
+                engine.getPowerUps().add(new PowerUp(x, y, types[i % types.length]));
+            }
+
+            // El motor mantiene obstáculos, enemigos y power-ups ordenados por x
+            engine.getEnemies().sort(Comparator.comparingInt(GameObject::getX));
+            engine.getPowerUps().sort(Comparator.comparingInt(GameObject::getX));
+
+            obstacles = engine.getObstacles().toArray(new Obstacle[0]);
+            enemies = engine.getEnemies().toArray(new Enemy[0]);
+            projectiles.copyFrom(engine.getProjectiles());
+            powerUps = engine.getPowerUps().toArray(new PowerUp[0]);
+            for (GameObject o : obstacles) objects.add(o);
+            for (GameObject o : enemies) objects.add(o);
+            for (GameObject o : powerUps) objects.add(o);
+            xs = new int[objects.size()];
+            ys = new int[objects.size()];
+            active = new boolean[objects.size()];
+            for (int i = 0; i < objects.size(); i++) {
+                GameObject o = objects.get(i);
+                xs[i] = o.x;
+                ys[i] = o.y;
+                active[i] = o.isActive();
+            }
+        }
+
+        // Sin reservar memoria: se reutilizan los mismos objetos
+        void restore() {
+            refill(engine.getObstacles(), obstacles);
+            refill(engine.getEnemies(), enemies);
+            engine.getProjectiles().copyFrom(projectiles);
+            refill(engine.getPowerUps(), powerUps);
+            for (int i = 0; i < xs.length; i++) {
+                GameObject o = objects.get(i);
+                o.x = xs[i];
+                o.y = ys[i];
+                o.setActive(active[i]);
+            }
+        }
+
+        private static <T> void refill(ArrayList<T> list, T[] items) {
+            list.clear();
+            for (T item : items) list.add(item);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench();
+
+        // Fases del motor
+        WorldFixture hard = new WorldFixture(GameEngine.Difficulty.HARD, GameEngine.World.CLOUD_KINGDOM);
+        bench.add("WorldFixture.restore (referencia)", bh -> hard.restore());
+        bench.add("GameEngine.updateObjects", hard::restore, bh -> hard.engine.updateObjects());
+        bench.add("GameEngine.checkCollisions", hard::restore, bh -> hard.engine.checkCollisions());
+        bench.add("GameEngine.cleanupObjects", hard::restore, bh -> hard.engine.cleanupObjects());
+        // Con el cuádruple de objetos, las colisiones deben costar unas cuatro veces más
+        WorldFixture crowded = new WorldFixture(GameEngine.Difficulty.HARD, GameEngine.World.CLOUD_KINGDOM, 4);
+        bench.add("GameEngine.checkCollisions (x4 objetos)", crowded::restore, bh -> crowded.engine.checkCollisions());
+        // Fase de jefe: 10000 balas enemigas a la vez
+        WorldFixture hell = new WorldFixture(GameEngine.Difficulty.HARD, GameEngine.World.CLOUD_KINGDOM, 1, BULLET_HELL);
+        hell.engine.setUpdatePool(ForkJoinPool.commonPool());
+        bench.add("GameEngine.updateObjects (10000 balas)", hell::restore, bh -> hell.engine.updateObjects());
+        // La misma actualización en serie y repartida en 4 hilos (ParallelRange);
+        // la diferencia con la de arriba es la ganancia o el coste de repartir
+        WorldFixture hellSerial = new WorldFixture(GameEngine.Difficulty.HARD, GameEngine.World.CLOUD_KINGDOM, 1, BULLET_HELL);
+        hellSerial.engine.setUpdatePool(null);
+        bench.add("GameEngine.updateObjects (10000 balas, en serie)", hellSerial::restore,
+                  bh -> hellSerial.engine.updateObjects());
+        WorldFixture hellForked = new WorldFixture(GameEngine.Difficulty.HARD, GameEngine.World.CLOUD_KINGDOM, 1, BULLET_HELL);
+        ForkJoinPool workers = new ForkJoinPool(4);
+        hellForked.engine.setUpdatePool(workers);
+        bench.add("GameEngine.updateObjects (10000 balas, 4 hilos)", hellForked::restore,
+                  bh -> hellForked.engine.updateObjects());
+        bench.add("GameEngine.checkCollisions (10000 balas)", hell::restore, bh -> hell.engine.checkCollisions());
+
+        // Paso completo en una partida real con el piloto de HeadlessSimulator
+        GameEngine[] run = { new GameEngine(GameEngine.Difficulty.HARD, GameEngine.World.CLOUD_KINGDOM, SEED) };
+        bench.add("GameEngine.step (partida HARD)", bh -> {
+            GameEngine engine = run[0];
+            if (engine.isFinished()) {
+                engine = run[0] = new GameEngine(GameEngine.Difficulty.HARD, GameEngine.World.CLOUD_KINGDOM, SEED);
+            }
+            engine.step(HeadlessSimulator.scriptedInputs(engine));
+            bh.consume(engine.getScore());
+        });
+
+        // Prueba exacta tras solaparse las cajas: avión contra enemigo que se tocan en parte
+        Aero plane = new Aero(300, 300);
+        Enemy enemy = new Enemy(340, 315, 0);
+        bench.add("GameObject.intersects (cajas)", bh -> bh.consume(
+            plane.intersects(enemy.getHitboxX(), enemy.getHitboxY(), enemy.getHitboxWidth(), enemy.getHitboxHeight())));
+        bench.add("GameObject.overlapsMask (máscaras)", bh -> bh.consume(
+            plane.overlapsMask(enemy.getCollisionMask(), enemy.getHitboxX(), enemy.getHitboxY(),
+                               enemy.getHitboxWidth(), enemy.getHitboxHeight())));
+
+        Level level = hard.engine.getLevelManager().getCurrentLevel();
+        bench.add("Level.getRandomObstacleType", bh -> bh.consume(level.getRandomObstacleType()));
+
+        // Movimiento de los proyectiles: el coste por proyectil debe ser el mismo
+        // con 200 que con 20000
+        double dt = 1.0 / TickRate.DEFAULT;
+        ProjectileStore[] shots = { shotStore(PROJECTILES), shotStore(PROJECTILES * 100) };
+        ProjectileStore moving = new ProjectileStore();
+        for (ProjectileStore source : shots) {
+            bench.add("ProjectileStore.update (" + source.size() + ")", () -> moving.copyFrom(source), bh -> {
+                moving.update(dt, 300.0);
+                bh.consume(moving.getY(0));
+            });
+        }
+
+        // Dibujo en una imagen del mismo tipo que la pantalla
+        BufferedImage image = new BufferedImage(GameEngine.WIDTH, GameEngine.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+
+        ProjectileStore shot = new ProjectileStore();
+        shot.spawn(400, 300, 600, false);
+        shot.update(dt, 300.0);
+        bench.add("ProjectileStore.draw (1)", bh -> shot.draw(g2d, 1.0));
+        // Balas en todas direcciones y con la estela ya crecida
+        ProjectileStore rings = new ProjectileStore();
+        fillWithRings(rings, BULLET_HELL, new SplittableRandom(SEED));
+        for (int i = 0; i < 6; i++) rings.update(dt, 150.0);
+        bench.add("ProjectileStore.draw (10000 balas)", bh -> rings.draw(g2d, 0.5));
+
+        BulletPattern ring = BulletPattern.ring(32, 300);
+        ProjectileStore emitted = new ProjectileStore();
+        bench.add("BulletPattern.emit (anillo de 32)", emitted::clear,
+                  bh -> bh.consume(ring.emit(emitted, 400, 300, true, 0, 0, 0)));
+        for (Obstacle.Type type : Obstacle.Type.values()) {
+            Obstacle obstacle = type == Obstacle.Type.CITY_BUILDING
+                ? new Obstacle(400, 70, 260, GameEngine.HEIGHT - 260, true, type)
+                : new Obstacle(400, 250, type);
+            bench.add("Obstacle.draw " + type, bh -> obstacle.draw(g2d));
+        }
+        Cloud cloud = new Cloud(400, 200, 1, new SplittableRandom(SEED));
+        bench.add("Cloud.draw", bh -> cloud.draw(g2d));
+        for (PowerUp.Type type : PowerUp.Type.values()) {
+            PowerUp powerUp = new PowerUp(400, 300, type);
+            bench.add("PowerUp.draw " + type, bh -> powerUp.draw(g2d));
+        }
+
+        Enemy drawnEnemy = new Enemy(400, 300, 0);
+        bench.add("Enemy.draw", bh -> drawnEnemy.draw(g2d));
+        Aero aero = new Aero(200, 300);
+        bench.add("Aero.draw", bh -> aero.draw(g2d));
+
+        // Fondo con la cámara quieta (solo las baldosas) y avanzando 4 px por
+        // fotograma, como a la velocidad normal (incluye rehacer las que
+        // entran); vuelve al principio cada 1024 px para no dejar atrás los
+        // elementos del fixture
+        ParallaxBackground background = new ParallaxBackground();
+        bench.add("ParallaxBackground.draw (cámara fija)", bh -> background.draw(g2d, hard.engine, 0));
+        ParallaxBackground scrolling = new ParallaxBackground();
+        double[] camera = {0};
+        bench.add("ParallaxBackground.draw (cámara en marcha)", bh -> {
+            scrolling.draw(g2d, hard.engine, camera[0]);
+            camera[0] = (camera[0] + 4) % 1024;
+        });
+
+        // Marcador (tres líneas de texto y barras) y aviso de pausa
+        HudLayer hud = new HudLayer();
+        bench.add("HudLayer.draw", bh -> hud.draw(g2d, hard.engine, false));
+        bench.add("HudLayer.draw (en pausa)", bh -> hud.draw(g2d, hard.engine, true));
+
+        // Fotograma completo con el mundo poblado
+        GameRenderer renderer = new GameRenderer(new FrameProfiler());
+        bench.add("GameRenderer.render (fotograma completo)", hard::restore, bh -> {
+            Graphics2D frame = image.createGraphics();
+            renderer.render(frame, hard.engine, SkyRunnerGame.GameState.PLAYING, 1.0, 1.0);
+            frame.dispose();
+        });
+
+        // Ventana al 200%: dibujar a escala 2 directamente o a escala 1 en el
+        // BackBuffer y presentarlo escalado
+        BufferedImage window = new BufferedImage(GameEngine.WIDTH * 2, GameEngine.HEIGHT * 2, BufferedImage.TYPE_INT_RGB);
+        BackBuffer backBuffer = new BackBuffer();
+        BackBuffer.Frame world = (g, scale) -> renderer.render(g, hard.engine, SkyRunnerGame.GameState.PLAYING, 1.0, scale);
+        bench.add("BackBuffer.present (ventana 200%, interna 200%)", hard::restore, bh -> {
+            Graphics2D screen = window.createGraphics();
+            backBuffer.present(screen, 2.0, 2.0, world);
+            screen.dispose();
+        });
+        bench.add("BackBuffer.present (ventana 200%, interna 100%)", hard::restore, bh -> {
+            Graphics2D screen = window.createGraphics();
+            backBuffer.present(screen, 1.0, 2.0, world);
+            screen.dispose();
+        });
+        BackBuffer smooth = new BackBuffer();
+        smooth.setInterpolation(RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        bench.add("BackBuffer.present (ventana 200%, interna 100%, bilineal)", hard::restore, bh -> {
+            Graphics2D screen = window.createGraphics();
+            smooth.present(screen, 1.0, 2.0, world);
+            screen.dispose();
+        });
+
+        bench.runAll();
+        g2d.dispose();
+        workers.shutdown();
+    }
+
+    // Anillos de 40 balas enemigas desde puntos al azar de la pantalla
+    static void fillWithRings(ProjectileStore store, int bullets, SplittableRandom random) {
+        BulletPattern ring = BulletPattern.spiral(40, 240, 7);
+        for (int volley = 0; volley * ring.getCount() < bullets; volley++) {
+            ring.emit(store, 300 + random.nextInt(GameEngine.WIDTH - 300), 40 + random.nextInt(GameEngine.HEIGHT - 80),
+                      true, 0, 0, volley);
+        }
+    }
+
+    // Proyectiles repartidos por la pantalla, un tercio enemigos
+    static ProjectileStore shotStore(int count) {
+        ProjectileStore store = new ProjectileStore();
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < count; i++) {
+            boolean enemyShot = i % 3 == 0;
+            store.spawn(random.nextInt(GameEngine.WIDTH), random.nextInt(GameEngine.HEIGHT),
+                        enemyShot ? -480 : 600, enemyShot);
+        }
+        return store;
+    }
+}
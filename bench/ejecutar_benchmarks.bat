@@ -0,0 +1,25 @@
+@echo off
+setlocal
+rem Ejecutar desde la carpeta del proyecto: bench\ejecutar_benchmarks.bat [filtro]
+rem Ejemplo: bench\ejecutar_benchmarks.bat "Obstacle.draw"
+echo Compilando Sky Runner y los benchmarks...
+
+if not exist "bin" mkdir bin
+if not exist "bench\bin" mkdir bench\bin
+
+javac --release 21 -encoding UTF-8 -d bin -cp . *.java
+if errorlevel 1 goto :error
+javac --release 21 -encoding UTF-8 -cp bin -d bench\bin bench\*.java
+if errorlevel 1 goto :error
+
+set "FILTER=.*"
+if not "%~1"=="" set "FILTER=%~1"
+
+java -Djava.awt.headless=true -Dbench.filter=%FILTER% -cp bin;bench\bin EngineBenchmarks
+goto :eof
+
+:error
+echo.
+echo ERROR: Falló la compilación
+pause
+exit /b 1